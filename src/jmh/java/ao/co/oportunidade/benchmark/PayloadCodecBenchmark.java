@@ -0,0 +1,141 @@
+package ao.co.oportunidade.benchmark;
+
+import ao.co.oportunidade.webhook.test.WebhookPayloadBuilder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import solutions.envision.codec.GzipPayloadCodec;
+import solutions.envision.codec.IdentityPayloadCodec;
+import solutions.envision.codec.PayloadCodec;
+import solutions.envision.codec.ZstdPayloadCodec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks of the webhook payload codecs: CPU time to encode and decode one payload.
+ * Encoding also reports the {@code rawBytes} and {@code storedBytes} it handled as secondary
+ * results, their ratio being the stored size relative to the raw JSON.
+ * Payloads are read from the {@code *.json} files of the directory given with {@code -p corpus=<dir>},
+ * or synthesised when none is given. The zstd dictionary is
+ * trained on the even payloads and measured on the odd ones, as a deployed dictionary would be.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadCodecBenchmark {
+
+    private static final int SYNTHETIC_PAYLOADS = 2000;
+    private static final int DICTIONARY_SIZE = 16 * 1024;
+    private static final String[] STATUSES = {"Success", "Pending", "Failed", "Cancelled", "Refunded"};
+
+    @Param({"identity", "gzip", "zstd", "zstd-dict"})
+    public String codecName;
+
+    @Param({"3"})
+    public int zstdLevel;
+
+    @Param({""})
+    public String corpus;
+
+    private PayloadCodec codec;
+    private byte[][] raw;
+    private byte[][] encoded;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        final List<byte[]> payloads = corpus.isEmpty() ? synthesise() : read(Path.of(corpus));
+        final List<byte[]> training = new ArrayList<>();
+        final List<byte[]> measured = new ArrayList<>();
+        for (int i = 0; i < payloads.size(); i++) {
+            (i % 2 == 0 ? training : measured).add(payloads.get(i));
+        }
+        codec = switch (codecName) {
+            case "identity" -> new IdentityPayloadCodec();
+            case "gzip" -> new GzipPayloadCodec();
+            case "zstd" -> new ZstdPayloadCodec(zstdLevel);
+            case "zstd-dict" -> new ZstdPayloadCodec(zstdLevel, ZstdPayloadCodec.train(training, DICTIONARY_SIZE));
+            default -> throw new IllegalArgumentException("Unknown codec: " + codecName);
+        };
+        raw = measured.toArray(byte[][]::new);
+        encoded = measured.stream().map(codec::encode).toArray(byte[][]::new);
+    }
+
+    @Benchmark
+    public byte[] encode(Sizes sizes) {
+        final byte[] payload = raw[nextIndex()];
+        final byte[] stored = codec.encode(payload);
+        sizes.rawBytes += payload.length;
+        sizes.storedBytes += stored.length;
+        return stored;
+    }
+
+    @Benchmark
+    public byte[] decode() {
+        return codec.decode(encoded[nextIndex()]);
+    }
+
+    /**
+     * Bytes encoded and stored per iteration, reported next to the encode time.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Sizes {
+
+        public long rawBytes;
+        public long storedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rawBytes = 0;
+            storedBytes = 0;
+        }
+    }
+
+    private int nextIndex() {
+        next = next + 1 == raw.length ? 0 : next + 1;
+        return next;
+    }
+
+    private static List<byte[]> synthesise() throws JsonProcessingException {
+        final ObjectMapper objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        final List<byte[]> payloads = new ArrayList<>(SYNTHETIC_PAYLOADS);
+        for (int i = 0; i < SYNTHETIC_PAYLOADS; i++) {
+            payloads.add(objectMapper.writeValueAsBytes(WebhookPayloadBuilder.createCustomPayload(
+                    "tx-" + Integer.toHexString(i * 7919), "ORDER-" + i,
+                    BigDecimal.valueOf(1000 + i * 37L, 2), STATUSES[i % STATUSES.length])));
+        }
+        return payloads;
+    }
+
+    private static List<byte[]> read(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".json"))
+                    .sorted()
+                    .map(PayloadCodecBenchmark::readAllBytes)
+                    .toList();
+        }
+    }
+
+    private static byte[] readAllBytes(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package ao.co.oportunidade.benchmark;
+
+import ao.co.oportunidade.order.entity.OrderEntity;
+import ao.co.oportunidade.order.entity.OrderEntityMapper;
+import ao.co.oportunidade.order.entity.OrderEntityMapperImpl;
+import ao.co.oportunidade.order.model.Order;
+import ao.co.oportunidade.payment.entity.PaymentTransactionEntity;
+import ao.co.oportunidade.payment.entity.PaymentTransactionEntityMapper;
+import ao.co.oportunidade.payment.entity.PaymentTransactionEntityMapperImpl;
+import ao.co.oportunidade.payment.model.PaymentTransaction;
+import ao.co.oportunidade.payment.service.PaymentProcessService;
+import ao.co.oportunidade.webhook.WebhookEvent;
+import ao.co.oportunidade.webhook.WebhookPayload;
+import ao.co.oportunidade.webhook.dto.AppyPayWebhookPayload;
+import ao.co.oportunidade.webhook.entity.WebhookEventEntity;
+import ao.co.oportunidade.webhook.entity.WebhookEventEntityMapper;
+import ao.co.oportunidade.webhook.entity.WebhookEventEntityMapperImpl;
+import ao.co.oportunidade.webhook.entity.WebhookPayloadCodecs;
+import ao.co.oportunidade.webhook.test.WebhookPayloadBuilder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import solutions.envision.codec.ZstdPayloadCodec;
+import solutions.envision.odoo.dto.OdooPaymentDtoMapper;
+import solutions.envision.odoo.dto.OdooPaymentDtoMapperImpl;
+import solutions.envision.odoo.dto.OdooPaymentRequest;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the CPU-bound steps of the webhook ingest path.
+ * Run with {@code mvn -Pbenchmarks verify -DskipTests}; results are written to
+ * {@code target/jmh-result.json} together with the GC profiler's allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebhookIngestBenchmark {
+
+    private static final String[] STATUSES = {"Success", "Pending", "Failed", "Cancelled", "Refunded"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final WebhookEventEntityMapper webhookEventEntityMapper = new WebhookEventEntityMapperImpl(
+            new WebhookPayloadCodecs(new ZstdPayloadCodec(3), List.of()));
+    private final OrderEntityMapper orderEntityMapper = new OrderEntityMapperImpl();
+    private final PaymentTransactionEntityMapper paymentTransactionEntityMapper = new PaymentTransactionEntityMapperImpl();
+    private final OdooPaymentDtoMapper odooPaymentDtoMapper = new OdooPaymentDtoMapperImpl();
+
+    private AppyPayWebhookPayload payload;
+    private String payloadJson;
+    private WebhookEvent webhookEvent;
+    private WebhookEventEntity webhookEventEntity;
+    private Order order;
+    private OrderEntity orderEntity;
+    private PaymentTransaction paymentTransaction;
+    private PaymentTransactionEntity paymentTransactionEntity;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        payload = WebhookPayloadBuilder.createSuccessPayload();
+        payloadJson = objectMapper.writeValueAsString(payload);
+
+        webhookEvent = WebhookEvent.builder()
+                .id(UUID.randomUUID())
+                .appypayTransactionId(payload.getId())
+                .merchantTransactionId(payload.getMerchantTransactionId())
+                .webhookType(payload.getType())
+                .processingStatus(WebhookEvent.ProcessingStatus.RECEIVED)
+                .payload(WebhookPayload.of(payloadJson))
+                .receivedAt(Instant.now())
+                .createdDate(Instant.now())
+                .updatedDate(Instant.now())
+                .build();
+        webhookEventEntity = webhookEventEntityMapper.mapToEntity(webhookEvent);
+
+        order = Order.builder()
+                .id(UUID.randomUUID())
+                .merchantTransactionId(payload.getMerchantTransactionId())
+                .amount(payload.getAmount())
+                .currency(payload.getCurrency())
+                .status(Order.OrderStatus.PAID)
+                .customerName(payload.getCustomer().getName())
+                .customerEmail(payload.getCustomer().getEmail())
+                .createdDate(Instant.now())
+                .updatedDate(Instant.now())
+                .build();
+        orderEntity = orderEntityMapper.mapToEntity(order);
+
+        paymentTransaction = new PaymentTransaction();
+        paymentTransaction.setId(UUID.randomUUID());
+        paymentTransaction.setOrderId(order.getId());
+        paymentTransaction.setAppypayTransactionId(payload.getId());
+        paymentTransaction.setAmount(payload.getAmount());
+        paymentTransaction.setCurrency(payload.getCurrency());
+        paymentTransaction.setStatus(PaymentTransaction.TransactionStatus.SUCCESS);
+        paymentTransaction.setPaymentMethod(payload.getPaymentMethod());
+        paymentTransaction.setReferenceNumber(payload.getReference().getReferenceNumber());
+        paymentTransaction.setReferenceEntity(payload.getReference().getEntity());
+        paymentTransaction.setTransactionDate(Instant.now());
+        paymentTransaction.setCreatedDate(Instant.now());
+        paymentTransaction.setUpdatedDate(Instant.now());
+        paymentTransactionEntity = paymentTransactionEntityMapper.mapToEntity(paymentTransaction);
+    }
+
+    @Benchmark
+    public AppyPayWebhookPayload deserializePayload() throws JsonProcessingException {
+        return objectMapper.readValue(payloadJson, AppyPayWebhookPayload.class);
+    }
+
+    @Benchmark
+    public String serializePayload() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(payload);
+    }
+
+    @Benchmark
+    public WebhookEventEntity webhookEventToEntity() {
+        return webhookEventEntityMapper.mapToEntity(webhookEvent);
+    }
+
+    @Benchmark
+    public WebhookEvent webhookEventToDomain() {
+        return webhookEventEntityMapper.mapToDomain(webhookEventEntity);
+    }
+
+    @Benchmark
+    public OrderEntity orderToEntity() {
+        return orderEntityMapper.mapToEntity(order);
+    }
+
+    @Benchmark
+    public Order orderToDomain() {
+        return orderEntityMapper.mapToDomain(orderEntity);
+    }
+
+    @Benchmark
+    public PaymentTransactionEntity paymentTransactionToEntity() {
+        return paymentTransactionEntityMapper.mapToEntity(paymentTransaction);
+    }
+
+    @Benchmark
+    public PaymentTransaction paymentTransactionToDomain() {
+        return paymentTransactionEntityMapper.mapToDomain(paymentTransactionEntity);
+    }
+
+    @Benchmark
+    public OdooPaymentRequest.PaymentData paymentTransactionToOdoo() {
+        return odooPaymentDtoMapper.mapToDto(paymentTransaction);
+    }
+
+    @Benchmark
+    public void resolveStatus(Blackhole blackhole) {
+        for (String status : STATUSES) {
+            blackhole.consume(PaymentProcessService.resolveStatus(status));
+        }
+    }
+}
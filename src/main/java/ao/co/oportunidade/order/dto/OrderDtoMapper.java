@@ -15,6 +15,7 @@ public interface OrderDtoMapper extends DtoMapper<OrderDTO, Order> {
     OrderDTO mapToDto(Order domain);
 
     @Mapping(target = "status", source = "status")
+    @Mapping(target = "version", ignore = true)
     Order mapToDomain(OrderDTO dto);
 
     default String mapStatusToString(Order.OrderStatus status) {
@@ -1,8 +1,10 @@
 package ao.co.oportunidade.order.entity;
 
 import solutions.envision.entity.DomainEntity;
+import solutions.envision.entity.Versioned;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.NaturalId;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -11,12 +13,15 @@ import java.util.UUID;
 /**
  * JPA Entity for Order persistence.
  * Separated from domain model following DDD principles.
+ * Not second-level cached: hot reads by ID and merchant transaction ID are served by
+ * {@code OrderSnapshotCache}.
  */
 @Entity
 @Table(name = "orders", indexes = {
     @Index(name = "idx_order_merchant_tx_id", columnList = "merchantTransactionId"),
     @Index(name = "idx_order_status", columnList = "status"),
-    @Index(name = "idx_order_reference_id", columnList = "reference_id")
+    @Index(name = "idx_order_reference_id", columnList = "reference_id"),
+    @Index(name = "idx_order_created_id", columnList = "created_date, id")
 })
 @NamedQueries({
     @NamedQuery(
@@ -28,8 +33,8 @@ import java.util.UUID;
         query = "SELECT o FROM OrderEntity o WHERE o.id = :id"
     ),
     @NamedQuery(
-        name = OrderEntity.FIND_BY_MERCHANT_TX_ID,
-        query = "SELECT o FROM OrderEntity o WHERE o.merchantTransactionId = :merchantTxId"
+        name = OrderEntity.FIND_BY_REFERENCE_ID,
+        query = "SELECT o FROM OrderEntity o WHERE o.referenceId = :refId"
     )
 })
 @Getter
@@ -37,17 +42,18 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class OrderEntity extends DomainEntity {
+public class OrderEntity extends DomainEntity implements Versioned {
 
     public static final String FIND_ALL = "Order.findAll";
     public static final String FIND_BY_ID = "Order.findById";
-    public static final String FIND_BY_MERCHANT_TX_ID = "Order.findByMerchantTxId";
+    public static final String FIND_BY_REFERENCE_ID = "Order.findByReferenceId";
     public static final String PRIMARY_KEY = "id";
 
     @Id
     @Column(name = "id", nullable = false)
     private UUID id;
 
+    @NaturalId
     @Column(name = "merchantTransactionId", nullable = false, unique = true, length = 100)
     private String merchantTransactionId;
 
@@ -78,6 +84,10 @@ public class OrderEntity extends DomainEntity {
     @Column(name = "updated_date", nullable = false)
     private Instant updatedDate;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         if (id == null) {
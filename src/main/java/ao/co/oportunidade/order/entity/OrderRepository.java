@@ -2,6 +2,7 @@ package ao.co.oportunidade.order.entity;
 
 import ao.co.oportunidade.order.model.Order;
 import solutions.envision.entity.Repository;
+import solutions.envision.entity.SaveMode;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
@@ -29,6 +30,11 @@ public class OrderRepository extends Repository<Order, OrderEntity, OrderEntityM
                 .toList();
     }
 
+    @Override
+    protected SaveMode getSaveMode() {
+        return SaveMode.VERSIONED;
+    }
+
     @Override
     public Optional<Order> findDomainById(Order domain) {
         try {
@@ -42,8 +48,6 @@ public class OrderRepository extends Repository<Order, OrderEntity, OrderEntityM
         }
     }
 
-
-
     /**
      * Find order by merchant transaction ID.
      *
@@ -51,20 +55,7 @@ public class OrderRepository extends Repository<Order, OrderEntity, OrderEntityM
      * @return Optional containing the order if found
      */
     public Optional<Order> findByMerchantTransactionId(String merchantTransactionId) {
-        try {
-            final List<OrderEntity> results = getEntityManager()
-                    .createNamedQuery(OrderEntity.FIND_BY_MERCHANT_TX_ID, OrderEntity.class)
-                    .setParameter("merchantTxId", merchantTransactionId)
-                    .getResultList();
-            
-            if (results.isEmpty()) {
-                return Optional.empty();
-            }
-            
-            return Optional.ofNullable(mapper.mapToDomain(results.getFirst()));
-        } catch (Exception e) {
-            return Optional.empty();
-        }
+        return findDomainByNaturalId(OrderEntity.class, merchantTransactionId);
     }
 
     /**
@@ -76,7 +67,7 @@ public class OrderRepository extends Repository<Order, OrderEntity, OrderEntityM
     public Optional<Order> findByReferenceId(java.util.UUID referenceId) {
         try {
             List<OrderEntity> results = getEntityManager()
-                    .createQuery("SELECT o FROM OrderEntity o WHERE o.referenceId = :refId", OrderEntity.class)
+                    .createNamedQuery(OrderEntity.FIND_BY_REFERENCE_ID, OrderEntity.class)
                     .setParameter("refId", referenceId)
                     .getResultList();
             
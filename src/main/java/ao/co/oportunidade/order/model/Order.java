@@ -1,6 +1,7 @@
 package ao.co.oportunidade.order.model;
 
 import solutions.envision.model.Domain;
+import solutions.envision.model.VersionedDomain;
 import lombok.*;
 
 import java.math.BigDecimal;
@@ -15,8 +16,8 @@ import java.util.UUID;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
-public class Order extends Domain {
+@Builder(toBuilder = true)
+public class Order extends Domain implements VersionedDomain {
 
     private UUID id;
     private String merchantTransactionId;
@@ -29,6 +30,7 @@ public class Order extends Domain {
     private String customerPhone;
     private Instant createdDate;
     private Instant updatedDate;
+    private Long version;
 
     @Override
     public UUID getId() {
@@ -3,33 +3,81 @@ package ao.co.oportunidade.order.resource;
 import ao.co.oportunidade.order.service.OrderService;
 import ao.co.oportunidade.order.model.Order;
 import ao.co.oportunidade.order.dto.OrderDTO;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import io.smallrye.mutiny.Multi;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.RestStreamElementType;
 import solutions.envision.resource.ServiceResource;
 
-import java.util.Collection;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
 
 import static solutions.envision.resource.Resource.API_VERSION_PATH;
 
 /**
  * REST Resource for Order management following DDD principles.
+ * The blocking endpoints run on virtual threads; the status stream is reactive, and only
+ * its initial lookup blocks, on a worker thread.
  */
 @Path(API_VERSION_PATH +"/orders")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class OrderResource extends ServiceResource<OrderDTO, Order, OrderService> {
 
+    @ConfigProperty(name = "order.status-stream.timeout", defaultValue = "5M")
+    Duration statusStreamTimeout;
+
+    /**
+     * Get one page of orders in creation order.
+     *
+     * @param after cursor from the {@value #NEXT_CURSOR_HEADER} header of the previous page
+     * @param limit the page size
+     * @param status optional status filter
+     * @return page of order DTOs
+     */
+    @RunOnVirtualThread
+    @GET
+    public Response getAllOrders(@QueryParam("after") String after,
+                                 @QueryParam("limit") @DefaultValue(DEFAULT_PAGE_SIZE) int limit,
+                                 @QueryParam("status") Order.OrderStatus status) {
+        return page(after, limit, filters(status));
+    }
+
     /**
-     * Get all orders.
+     * Stream all orders as newline-delimited JSON.
      *
-     * @return collection of order DTOs
+     * @param status optional status filter
+     * @return streamed order DTOs
      */
+    @RunOnVirtualThread
     @GET
-    public Collection<OrderDTO> getAllOrders() {
-        return getService().getAllDomains().stream()
+    @Path("/stream")
+    @Produces(NDJSON)
+    public StreamingOutput streamOrders(@QueryParam("status") Order.OrderStatus status) {
+        return stream(filters(status));
+    }
+
+    /**
+     * Get order by ID.
+     *
+     * @param id the order ID
+     * @return order DTO or 404 if not found
+     */
+    @RunOnVirtualThread
+    @GET
+    @Path("/{id}")
+    public Response getOrderById(@PathParam("id") UUID id) {
+        return getDomainService().findById(id)
                 .map(getMapper()::mapToDto)
-                .toList();
+                .map(dto -> Response.ok(dto).build())
+                .orElse(Response.status(Response.Status.NOT_FOUND).build());
     }
 
     /**
@@ -38,6 +86,7 @@ public class OrderResource extends ServiceResource<OrderDTO, Order, OrderService
      * @param merchantTxId the merchant transaction ID
      * @return order DTO or 404 if not found
      */
+    @RunOnVirtualThread
     @GET
     @Path("/merchant/{merchantTxId}")
     public Response getOrderByMerchantTxId(@PathParam("merchantTxId") String merchantTxId) {
@@ -47,12 +96,36 @@ public class OrderResource extends ServiceResource<OrderDTO, Order, OrderService
                 .orElse(Response.status(Response.Status.NOT_FOUND).build());
     }
 
+    /**
+     * Push the payment status of an order as server-sent events, replacing status polling.
+     * The current status is sent first, then every change; the stream ends once the order
+     * is no longer pending or after {@code order.status-stream.timeout} without a change,
+     * after which clients reconnect. Changes are pushed by the instance that commits them,
+     * so one committed on another instance is only sent when the timeout re-reads the order.
+     *
+     * @param merchantTxId the merchant transaction ID
+     * @return order DTOs, one event per status, or 404 if not found
+     */
+    @Blocking
+    @GET
+    @Path("/merchant/{merchantTxId}/events")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<OrderDTO> streamOrderStatus(@PathParam("merchantTxId") String merchantTxId) {
+        if (getDomainService().findByMerchantTransactionId(merchantTxId).isEmpty()) {
+            throw new NotFoundException();
+        }
+        return getDomainService().watchByMerchantTransactionId(merchantTxId, statusStreamTimeout)
+                .map(getMapper()::mapToDto);
+    }
+
     /**
      * Create a new order.
      *
      * @param orderDTO the order DTO
      * @return created response
      */
+    @RunOnVirtualThread
     @POST
     public Response createOrder(OrderDTO orderDTO) {
         Order order = getMapper().mapToDomain(orderDTO);
@@ -61,4 +134,12 @@ public class OrderResource extends ServiceResource<OrderDTO, Order, OrderService
                 .entity(getMapper().mapToDto(order))
                 .build();
     }
+
+    private static Map<String, Object> filters(Order.OrderStatus status) {
+        final Map<String, Object> filters = new HashMap<>();
+        if (status != null) {
+            filters.put("status", status.name());
+        }
+        return filters;
+    }
 }
@@ -8,14 +8,20 @@ import ao.co.oportunidade.reference.service.ReferenceService;
 import ao.co.oportunidade.webhook.dto.AppyPayWebhookPayload;
 import ao.co.oportunidade.webhook.dto.CustomerInfo;
 import ao.co.oportunidade.webhook.dto.ReferenceInfo;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import solutions.envision.entity.BatchSaveResult;
 import solutions.envision.model.DomainNotCreatedException;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -29,6 +35,12 @@ public class OrderService extends DomainService<Order, OrderRepository> {
     @Inject
     ReferenceService referenceService;
 
+    @Inject
+    OrderSnapshotCache snapshotCache;
+
+    @Inject
+    OrderStatusBroadcaster statusBroadcaster;
+
 
     public  Order find(AppyPayWebhookPayload payload) {
 
@@ -86,17 +98,91 @@ public class OrderService extends DomainService<Order, OrderRepository> {
         } catch (DomainNotCreatedException e) {
             throw new RuntimeException("Failed to create invalidated order", e);
         }
-        getRepository().save(order);
+        try {
+            getRepository().save(order);
+        } catch (RuntimeException e) {
+            snapshotCache.invalidate(order.getId());
+            throw e;
+        }
+        snapshotCache.putAfterCommit(order);
+        statusBroadcaster.publishAfterCommit(order);
     }
 
     /**
-     * Find order by merchant transaction ID.
+     * Save many orders in batches. They are dropped from the snapshot cache instead of being
+     * written through, and published to status subscribers once the batch commits; the
+     * broadcaster only emits the orders whose status changed.
+     *
+     * @param orders the orders to save
+     * @return the outcome of every row
+     */
+    @Transactional
+    @Override
+    public BatchSaveResult<Order> saveAll(Collection<Order> orders) {
+        orders.stream()
+                .map(Order::getId)
+                .filter(Objects::nonNull)
+                .forEach(snapshotCache::invalidateAfterCompletion);
+        final BatchSaveResult<Order> result = super.saveAll(orders);
+        result.getRows().stream()
+                .filter(row -> row.outcome() != BatchSaveResult.Outcome.REJECTED)
+                .map(BatchSaveResult.Row::domain)
+                .forEach(statusBroadcaster::publishAfterCommit);
+        return result;
+    }
+
+    /**
+     * Find order by ID, served from the snapshot cache when possible.
+     *
+     * @param id the order ID
+     * @return Optional containing the order if found
+     */
+    public Optional<Order> findById(UUID id) {
+        final Optional<Order> cached = snapshotCache.getById(id);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        final Optional<Order> order = getRepository().findDomainById(Order.builder().id(id).build());
+        order.ifPresent(snapshotCache::putIfNewer);
+        return order;
+    }
+
+    /**
+     * Find order by merchant transaction ID, served from the snapshot cache when possible.
      *
      * @param merchantTransactionId the merchant transaction ID
      * @return Optional containing the order if found
      */
     public java.util.Optional<Order> findByMerchantTransactionId(String merchantTransactionId) {
-        return getRepository().findByMerchantTransactionId(merchantTransactionId);
+        final Optional<Order> cached = snapshotCache.getByMerchantTransactionId(merchantTransactionId);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        final Optional<Order> order = getRepository().findByMerchantTransactionId(merchantTransactionId);
+        order.ifPresent(snapshotCache::putIfNewer);
+        return order;
+    }
+
+    /**
+     * Stream the status of an order: the current one, then each committed change,
+     * completing once the order is no longer pending or after {@code idleTimeout} without
+     * a change. The order is read from the database, not the snapshot cache, so a change
+     * committed on another instance is seen when the stream starts and when it times out.
+     *
+     * @param merchantTransactionId the merchant transaction ID
+     * @param idleTimeout time without a change after which the stream completes
+     * @return the order on every status change
+     */
+    public Multi<Order> watchByMerchantTransactionId(String merchantTransactionId, Duration idleTimeout) {
+        return statusBroadcaster.subscribe(merchantTransactionId,
+                () -> QuarkusTransaction.joiningExisting().call(() -> {
+                    final Optional<Order> order = getRepository().findByMerchantTransactionId(merchantTransactionId);
+                    order.ifPresent(snapshotCache::putIfNewer);
+                    return order;
+                }),
+                order -> order.getStatus() != Order.OrderStatus.PENDING,
+                idleTimeout)
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
     }
 
 }
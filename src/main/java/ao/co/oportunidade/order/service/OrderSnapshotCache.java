@@ -0,0 +1,144 @@
+package ao.co.oportunidade.order.service;
+
+import ao.co.oportunidade.order.model.Order;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import solutions.envision.service.TransactionCallbacks;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Bounded in-memory snapshots of committed orders, keyed by ID with a secondary index
+ * on merchant transaction ID. Callers always get their own copy, so changing a returned
+ * order never changes the cache. A snapshot only replaces one with an equal or lower
+ * version, so a late read cannot overwrite a newer write. Size, TTL and hit/miss metrics
+ * are configured under {@code quarkus.cache.caffeine.order-by-id} and
+ * {@code quarkus.cache.caffeine.order-id-by-merchant-tx-id}; the TTL bounds how long
+ * another instance's writes can go unseen.
+ */
+@ApplicationScoped
+public class OrderSnapshotCache {
+
+    @Inject
+    @CacheName("order-by-id")
+    Cache ordersById;
+
+    @Inject
+    @CacheName("order-id-by-merchant-tx-id")
+    Cache idsByMerchantTransactionId;
+
+    @Inject
+    TransactionCallbacks transactionCallbacks;
+
+    /**
+     * Get a copy of the cached order.
+     *
+     * @param id the order ID
+     * @return Optional containing the order if cached
+     */
+    public Optional<Order> getById(UUID id) {
+        return Optional.ofNullable(snapshot(id)).map(OrderSnapshotCache::copy);
+    }
+
+    /**
+     * Get a copy of the cached order.
+     *
+     * @param merchantTransactionId the merchant transaction ID
+     * @return Optional containing the order if cached
+     */
+    public Optional<Order> getByMerchantTransactionId(String merchantTransactionId) {
+        if (merchantTransactionId == null) {
+            return Optional.empty();
+        }
+        final CompletableFuture<UUID> id =
+                idsByMerchantTransactionId.as(CaffeineCache.class).getIfPresent(merchantTransactionId);
+        if (id == null || id.getNow(null) == null) {
+            return Optional.empty();
+        }
+        final Order order = snapshot(id.getNow(null));
+        return order == null || !merchantTransactionId.equals(order.getMerchantTransactionId())
+                ? Optional.empty()
+                : Optional.of(copy(order));
+    }
+
+    /**
+     * Cache an order read from or written to the database, unless a newer version is cached.
+     * Orders that were never saved carry no version and are ignored.
+     *
+     * @param order the order
+     */
+    public synchronized void putIfNewer(Order order) {
+        if (order.getId() == null || order.getVersion() == null) {
+            return;
+        }
+        final Order cached = snapshot(order.getId());
+        if (cached != null && cached.getVersion() > order.getVersion()) {
+            return;
+        }
+        ordersById.as(CaffeineCache.class).put(order.getId(), CompletableFuture.completedFuture(copy(order)));
+        if (order.getMerchantTransactionId() != null) {
+            idsByMerchantTransactionId.as(CaffeineCache.class)
+                    .put(order.getMerchantTransactionId(), CompletableFuture.completedFuture(order.getId()));
+        }
+    }
+
+    /**
+     * Drop the cached snapshot of an order.
+     *
+     * @param id the order ID
+     */
+    public synchronized void invalidate(UUID id) {
+        ordersById.invalidate(id).await().indefinitely();
+    }
+
+    /**
+     * Drop all cached orders, e.g. after orders were deleted.
+     */
+    public void invalidateAll() {
+        ordersById.invalidateAll().await().indefinitely();
+        idsByMerchantTransactionId.invalidateAll().await().indefinitely();
+    }
+
+    /**
+     * Cache an order once the current transaction commits and drop it on rollback,
+     * or cache it immediately when no transaction is active.
+     *
+     * @param order the order being written, carrying its new version
+     */
+    public void putAfterCommit(Order order) {
+        final Order snapshot = copy(order);
+        transactionCallbacks.afterCompletion(status -> {
+            if (status == Status.STATUS_COMMITTED) {
+                putIfNewer(snapshot);
+            } else {
+                invalidate(snapshot.getId());
+            }
+        });
+    }
+
+    /**
+     * Drop the cached snapshot of an order now and again once the current transaction completes,
+     * for writes whose resulting version is not known.
+     *
+     * @param id the order ID
+     */
+    public void invalidateAfterCompletion(UUID id) {
+        invalidate(id);
+        transactionCallbacks.afterCompletion(status -> invalidate(id));
+    }
+
+    private Order snapshot(UUID id) {
+        final CompletableFuture<Order> order = ordersById.as(CaffeineCache.class).getIfPresent(id);
+        return order == null ? null : order.getNow(null);
+    }
+
+    private static Order copy(Order order) {
+        return order.toBuilder().build();
+    }
+}
@@ -0,0 +1,183 @@
+package ao.co.oportunidade.order.service;
+
+import ao.co.oportunidade.order.model.Order;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.operators.multi.processors.UnicastProcessor;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import solutions.envision.service.TransactionCallbacks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Fans committed order changes out to the subscribers of each merchant transaction ID.
+ * A subscriber holds no thread while it waits, only a buffer and a map entry, so idle
+ * subscribers are cheap. Each subscriber sees the status of its order at most once per
+ * change and in version order, however the writes interleave. The number of subscribers
+ * is published as the {@code orders.status.subscribers} gauge.
+ * <p>
+ * Fan-out is per instance: changes committed on another instance reach a subscriber only
+ * when its idle timeout re-reads the order.
+ */
+@ApplicationScoped
+public class OrderStatusBroadcaster {
+
+    @Inject
+    TransactionCallbacks transactionCallbacks;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("orders.status.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Subscribers waiting for order status changes")
+                .register(registry);
+    }
+
+    /**
+     * Subscribe to the status changes of an order. The subscriber is registered when the
+     * stream is subscribed, and before the current order is read, so a change committed in
+     * between is never lost and a stream that is never subscribed leaves nothing behind.
+     * <p>
+     * Only changes committed on this instance are pushed. After {@code idleTimeout} without
+     * a change the order is read again, emitting a change committed on another instance,
+     * and the stream completes.
+     *
+     * @param merchantTransactionId the merchant transaction ID
+     * @param current reads the current order from the database, emitted first when present;
+     *                called on the subscribing thread and on the timeout's worker thread
+     * @param last completes the stream once an order matching it was emitted
+     * @param idleTimeout time without a change after which the stream completes
+     * @return the order and its later status changes
+     */
+    public Multi<Order> subscribe(String merchantTransactionId, Supplier<Optional<Order>> current,
+                                  Predicate<Order> last, Duration idleTimeout) {
+        return Multi.createFrom().deferred(() -> {
+            final Subscriber subscriber = new Subscriber(last);
+            subscribers.compute(merchantTransactionId, (key, registered) -> {
+                final Set<Subscriber> set = registered == null ? ConcurrentHashMap.newKeySet() : registered;
+                set.add(subscriber);
+                return set;
+            });
+            subscriberCount.incrementAndGet();
+            try {
+                current.get().ifPresent(subscriber::emit);
+            } catch (RuntimeException e) {
+                unsubscribe(merchantTransactionId, subscriber);
+                throw e;
+            }
+            if (subscriber.isDone()) {
+                unsubscribe(merchantTransactionId, subscriber);
+            }
+            return subscriber.processor
+                    .onTermination().invoke(() -> unsubscribe(merchantTransactionId, subscriber))
+                    .ifNoItem().after(idleTimeout).recoverWithMulti(() -> Multi.createFrom()
+                            .optional(() -> current.get().filter(subscriber::advance)));
+        });
+    }
+
+    /**
+     * Number of subscribers currently waiting for changes.
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Emit an order to its subscribers.
+     *
+     * @param order the committed order
+     */
+    public void publish(Order order) {
+        if (order.getMerchantTransactionId() == null) {
+            return;
+        }
+        final Set<Subscriber> set = subscribers.get(order.getMerchantTransactionId());
+        if (set != null) {
+            set.forEach(subscriber -> subscriber.emit(order.toBuilder().build()));
+        }
+    }
+
+    /**
+     * Emit an order to its subscribers once the current transaction commits,
+     * or immediately when no transaction is active.
+     *
+     * @param order the order being written, carrying its new version
+     */
+    public void publishAfterCommit(Order order) {
+        final Order snapshot = order.toBuilder().build();
+        transactionCallbacks.afterCommit(() -> publish(snapshot));
+    }
+
+    private void unsubscribe(String merchantTransactionId, Subscriber subscriber) {
+        subscribers.computeIfPresent(merchantTransactionId, (key, set) -> {
+            if (set.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * One subscriber, buffering the orders emitted before its stream is subscribed.
+     */
+    private static final class Subscriber {
+
+        private final UnicastProcessor<Order> processor = UnicastProcessor.create();
+        private final Predicate<Order> last;
+        private long version = -1;
+        private Order.OrderStatus status;
+        private boolean done;
+
+        private Subscriber(Predicate<Order> last) {
+            this.last = last;
+        }
+
+        synchronized void emit(Order order) {
+            if (advance(order)) {
+                processor.onNext(order);
+                if (done) {
+                    processor.onComplete();
+                }
+            }
+        }
+
+        /**
+         * Record an order if it is a newer version with another status.
+         *
+         * @return true if the order is a status change to emit
+         */
+        synchronized boolean advance(Order order) {
+            if (done || order.getVersion() != null && order.getVersion() <= version) {
+                return false;
+            }
+            if (order.getVersion() != null) {
+                version = order.getVersion();
+            }
+            if (order.getStatus() == status) {
+                return false;
+            }
+            status = order.getStatus();
+            done = last.test(order);
+            return true;
+        }
+
+        synchronized boolean isDone() {
+            return done;
+        }
+    }
+}
@@ -15,6 +15,11 @@ public interface PaymentTransactionDtoMapper extends DtoMapper<PaymentTransactio
     PaymentTransactionDTO mapToDto(PaymentTransaction domain);
 
     @Mapping(target = "status", source = "status")
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "odooSyncStatus", ignore = true)
+    @Mapping(target = "odooSyncAttempts", ignore = true)
+    @Mapping(target = "odooNextAttemptAt", ignore = true)
+    @Mapping(target = "odooSyncError", ignore = true)
     PaymentTransaction mapToDomain(PaymentTransactionDTO dto);
 
     default String mapStatusToString(PaymentTransaction.TransactionStatus status) {
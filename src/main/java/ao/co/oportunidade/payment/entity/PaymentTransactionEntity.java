@@ -1,11 +1,14 @@
 package ao.co.oportunidade.payment.entity;
 
 import solutions.envision.entity.DomainEntity;
+import solutions.envision.entity.Versioned;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -14,13 +17,16 @@ import java.util.UUID;
 /**
  * JPA Entity for PaymentTransaction persistence.
  * Separated from domain model following DDD principles.
+ * Only the AppyPay transaction ID to ID resolution is cached, for the same reason as orders.
  */
 @Entity
 @Table(name = "payment_transactions", indexes = {
-    @Index(name = "idx_payment_tx_appypay_id", columnList = "appypayTransactionId"),
+    @Index(name = "idx_payment_tx_appypay_id", columnList = "appypayTransactionId", unique = true),
     @Index(name = "idx_payment_tx_order_id", columnList = "order_id"),
     @Index(name = "idx_payment_tx_status", columnList = "status"),
-    @Index(name = "idx_payment_tx_created", columnList = "transaction_date")
+    @Index(name = "idx_payment_tx_created", columnList = "transaction_date"),
+    @Index(name = "idx_payment_tx_odoo_sync", columnList = "odoo_sync_status, odoo_next_attempt_at"),
+    @Index(name = "idx_payment_tx_created_id", columnList = "created_date, id")
 })
 @NamedQueries({
     @NamedQuery(
@@ -32,19 +38,31 @@ import java.util.UUID;
         query = "SELECT pt FROM PaymentTransactionEntity pt WHERE pt.id = :id"
     ),
     @NamedQuery(
-        name = PaymentTransactionEntity.FIND_BY_APPYPAY_TX_ID,
-        query = "SELECT pt FROM PaymentTransactionEntity pt WHERE pt.appypayTransactionId = :appypayTxId"
+        name = PaymentTransactionEntity.FIND_BY_ORDER_ID,
+        query = "SELECT pt FROM PaymentTransactionEntity pt WHERE pt.orderId = :orderId"
+    ),
+    @NamedQuery(
+        name = PaymentTransactionEntity.FIND_ODOO_SYNC_DUE,
+        query = "SELECT pt FROM PaymentTransactionEntity pt WHERE pt.odooSyncStatus = :odooSyncStatus " +
+                "AND pt.odooNextAttemptAt <= :now ORDER BY pt.odooNextAttemptAt"
+    ),
+    @NamedQuery(
+        name = PaymentTransactionEntity.COUNT_BY_ODOO_SYNC_STATUS,
+        query = "SELECT COUNT(pt) FROM PaymentTransactionEntity pt WHERE pt.odooSyncStatus = :odooSyncStatus"
     )
 })
+@NaturalIdCache
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-public class PaymentTransactionEntity extends DomainEntity {
+public class PaymentTransactionEntity extends DomainEntity implements Versioned {
 
     public static final String FIND_ALL = "PaymentTransaction.findAll";
     public static final String FIND_BY_ID = "PaymentTransaction.findById";
-    public static final String FIND_BY_APPYPAY_TX_ID = "PaymentTransaction.findByAppyPayTxId";
+    public static final String FIND_BY_ORDER_ID = "PaymentTransaction.findByOrderId";
+    public static final String FIND_ODOO_SYNC_DUE = "PaymentTransaction.findOdooSyncDue";
+    public static final String COUNT_BY_ODOO_SYNC_STATUS = "PaymentTransaction.countByOdooSyncStatus";
     public static final String PRIMARY_KEY = "id";
 
     @Id
@@ -54,6 +72,7 @@ public class PaymentTransactionEntity extends DomainEntity {
     @Column(name = "order_id", nullable = false)
     private UUID orderId;
 
+    @NaturalId
     @Column(name = "appypayTransactionId", nullable = false, length = 100)
     private String appypayTransactionId;
 
@@ -87,6 +106,25 @@ public class PaymentTransactionEntity extends DomainEntity {
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
 
+    @Column(name = "odoo_payment_id")
+    private Integer paymentId;
+
+    @Column(name = "odoo_sync_status", length = 20)
+    private String odooSyncStatus;
+
+    @Column(name = "odoo_sync_attempts", nullable = false)
+    private int odooSyncAttempts;
+
+    @Column(name = "odoo_next_attempt_at")
+    private Instant odooNextAttemptAt;
+
+    @Column(name = "odoo_sync_error", columnDefinition = "TEXT")
+    private String odooSyncError;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         if (id == null) {
@@ -2,9 +2,12 @@ package ao.co.oportunidade.payment.entity;
 
 import ao.co.oportunidade.payment.model.PaymentTransaction;
 import solutions.envision.entity.Repository;
+import solutions.envision.entity.SaveMode;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -16,6 +19,11 @@ import java.util.UUID;
 @ApplicationScoped
 public class PaymentTransactionRepository extends Repository<PaymentTransaction, PaymentTransactionEntity,PaymentTransactionEntityMapper> {
 
+    /**
+     * Lock timeout understood by Hibernate as {@code FOR UPDATE SKIP LOCKED}.
+     */
+    private static final int SKIP_LOCKED = -2;
+
     @Inject
     PaymentTransactionEntityMapper mapper;
 
@@ -30,6 +38,11 @@ public class PaymentTransactionRepository extends Repository<PaymentTransaction,
                 .toList();
     }
 
+    @Override
+    protected SaveMode getSaveMode() {
+        return SaveMode.VERSIONED;
+    }
+
     @Override
     public Optional<PaymentTransaction> findDomainById(PaymentTransaction domain) {
         try {
@@ -52,20 +65,7 @@ public class PaymentTransactionRepository extends Repository<PaymentTransaction,
      * @return Optional containing the transaction if found
      */
     public Optional<PaymentTransaction> findByAppyPayTransactionId(String appypayTransactionId) {
-        try {
-            List<PaymentTransactionEntity> results = getEntityManager()
-                    .createNamedQuery(PaymentTransactionEntity.FIND_BY_APPYPAY_TX_ID, PaymentTransactionEntity.class)
-                    .setParameter("appypayTxId", appypayTransactionId)
-                    .getResultList();
-            
-            if (results.isEmpty()) {
-                return Optional.empty();
-            }
-            
-            return Optional.ofNullable(mapper.mapToDomain(results.getFirst()));
-        } catch (Exception e) {
-            return Optional.empty();
-        }
+        return findDomainByNaturalId(PaymentTransactionEntity.class, appypayTransactionId);
     }
 
     /**
@@ -76,11 +76,87 @@ public class PaymentTransactionRepository extends Repository<PaymentTransaction,
      */
     public List<PaymentTransaction> findByOrderId(UUID orderId) {
         final List<PaymentTransactionEntity> entities = getEntityManager()
-                .createQuery("SELECT pt FROM PaymentTransactionEntity pt WHERE pt.orderId = :orderId", PaymentTransactionEntity.class)
+                .createNamedQuery(PaymentTransactionEntity.FIND_BY_ORDER_ID, PaymentTransactionEntity.class)
                 .setParameter("orderId", orderId)
                 .getResultList();
         return entities.stream()
                 .map(mapper::mapToDomain)
                 .toList();
     }
+
+    /**
+     * Claim transactions whose Odoo sync is due, skipping rows locked by other instances.
+     * Each claimed row counts an attempt and is hidden from other pollers until {@code leaseUntil}.
+     *
+     * @param now the current time
+     * @param leaseUntil when the claim expires if the sync outcome is never recorded
+     * @param limit the maximum number of rows
+     * @return the claimed transactions, oldest due first
+     */
+    public List<PaymentTransaction> claimDueForOdooSync(Instant now, Instant leaseUntil, int limit) {
+        final List<PaymentTransactionEntity> entities = getEntityManager()
+                .createNamedQuery(PaymentTransactionEntity.FIND_ODOO_SYNC_DUE, PaymentTransactionEntity.class)
+                .setParameter("odooSyncStatus", PaymentTransaction.OdooSyncStatus.PENDING.name())
+                .setParameter("now", now)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint("jakarta.persistence.lock.timeout", SKIP_LOCKED)
+                .setMaxResults(limit)
+                .getResultList();
+        entities.forEach(entity -> {
+            entity.setOdooSyncAttempts(entity.getOdooSyncAttempts() + 1);
+            entity.setOdooNextAttemptAt(leaseUntil);
+        });
+        return entities.stream()
+                .map(mapper::mapToDomain)
+                .toList();
+    }
+
+    /**
+     * Record the outcome of an Odoo sync attempt.
+     *
+     * @param id the transaction ID
+     * @param status the new sync status
+     * @param paymentId the Odoo payment ID, if synced
+     * @param nextAttemptAt when to retry, if still pending
+     * @param error the failure reason, if any
+     */
+    public void recordOdooSync(UUID id, PaymentTransaction.OdooSyncStatus status, Integer paymentId,
+                               Instant nextAttemptAt, String error) {
+        final PaymentTransactionEntity entity = getEntityManager().find(PaymentTransactionEntity.class, id);
+        if (entity == null) {
+            return;
+        }
+        entity.setOdooSyncStatus(status.name());
+        entity.setPaymentId(paymentId);
+        entity.setOdooNextAttemptAt(nextAttemptAt);
+        entity.setOdooSyncError(error);
+    }
+
+    /**
+     * Give a claimed transaction back without counting the attempt, for syncs that never reached Odoo.
+     *
+     * @param id the transaction ID
+     * @param nextAttemptAt when the transaction is due again
+     */
+    public void releaseOdooSyncClaim(UUID id, Instant nextAttemptAt) {
+        final PaymentTransactionEntity entity = getEntityManager().find(PaymentTransactionEntity.class, id);
+        if (entity == null) {
+            return;
+        }
+        entity.setOdooSyncAttempts(Math.max(0, entity.getOdooSyncAttempts() - 1));
+        entity.setOdooNextAttemptAt(nextAttemptAt);
+    }
+
+    /**
+     * Count transactions by Odoo sync status.
+     *
+     * @param status the sync status
+     * @return the number of transactions
+     */
+    public long countByOdooSyncStatus(PaymentTransaction.OdooSyncStatus status) {
+        return getEntityManager()
+                .createNamedQuery(PaymentTransactionEntity.COUNT_BY_ODOO_SYNC_STATUS, Long.class)
+                .setParameter("odooSyncStatus", status.name())
+                .getSingleResult();
+    }
 }
@@ -1,6 +1,7 @@
 package ao.co.oportunidade.payment.model;
 
 import solutions.envision.model.Domain;
+import solutions.envision.model.VersionedDomain;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -18,7 +19,7 @@ import java.util.UUID;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-public class PaymentTransaction extends Domain {
+public class PaymentTransaction extends Domain implements VersionedDomain {
 
     private UUID id;
     private UUID orderId;
@@ -34,6 +35,11 @@ public class PaymentTransaction extends Domain {
     private Instant updatedDate;
     private String errorMessage;
     private Integer paymentId;
+    private OdooSyncStatus odooSyncStatus;
+    private int odooSyncAttempts;
+    private Instant odooNextAttemptAt;
+    private String odooSyncError;
+    private Long version;
 
     @Override
     public UUID getId() {
@@ -50,4 +56,13 @@ public class PaymentTransaction extends Domain {
         CANCELLED,
         REFUNDED
     }
+
+    /**
+     * Odoo synchronisation status enumeration
+     */
+    public enum OdooSyncStatus {
+        PENDING,
+        SYNCED,
+        FAILED
+    }
 }
@@ -3,13 +3,16 @@ package ao.co.oportunidade.payment.resource;
 import ao.co.oportunidade.payment.model.PaymentTransaction;
 import ao.co.oportunidade.payment.service.PaymentTransactionService;
 import ao.co.oportunidade.payment.dto.PaymentTransactionDTO;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import solutions.envision.resource.ServiceResource;
 
 import java.util.Collection;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 import static solutions.envision.resource.Resource.API_VERSION_PATH;
@@ -17,6 +20,7 @@ import static solutions.envision.resource.Resource.API_VERSION_PATH;
 /**
  * REST Resource for PaymentTransaction management following DDD principles.
  */
+@RunOnVirtualThread
 @Path(API_VERSION_PATH +"/payment-transactions")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
@@ -24,20 +28,35 @@ public class PaymentTransactionResource extends ServiceResource<PaymentTransacti
 
 
     /**
-     * Get all payment transactions.
+     * Get one page of payment transactions in creation order.
      *
-     * @return collection of payment transaction DTOs
+     * @param after cursor from the {@value #NEXT_CURSOR_HEADER} header of the previous page
+     * @param limit the page size
+     * @param status optional status filter
+     * @param orderId optional order filter
+     * @return page of payment transaction DTOs
      */
     @GET
-    public Response getAllTransactions() {
-        final List<PaymentTransactionDTO> payments = getService().getAllDomains().stream()
-                .map(getMapper()::mapToDto)
-                .toList();
+    public Response getAllTransactions(@QueryParam("after") String after,
+                                       @QueryParam("limit") @DefaultValue(DEFAULT_PAGE_SIZE) int limit,
+                                       @QueryParam("status") PaymentTransaction.TransactionStatus status,
+                                       @QueryParam("orderId") UUID orderId) {
+        return page(after, limit, filters(status, orderId));
+    }
 
-        if(payments.isEmpty()) {
-           return Response.status(Response.Status.NO_CONTENT).build();
-        }
-        return Response.ok(payments).build();
+    /**
+     * Stream all payment transactions as newline-delimited JSON.
+     *
+     * @param status optional status filter
+     * @param orderId optional order filter
+     * @return streamed payment transaction DTOs
+     */
+    @GET
+    @Path("/stream")
+    @Produces(NDJSON)
+    public StreamingOutput streamTransactions(@QueryParam("status") PaymentTransaction.TransactionStatus status,
+                                              @QueryParam("orderId") UUID orderId) {
+        return stream(filters(status, orderId));
     }
 
     /**
@@ -83,4 +102,15 @@ public class PaymentTransactionResource extends ServiceResource<PaymentTransacti
                 .entity(getMapper().mapToDto(transaction))
                 .build();
     }
+
+    private static Map<String, Object> filters(PaymentTransaction.TransactionStatus status, UUID orderId) {
+        final Map<String, Object> filters = new HashMap<>();
+        if (status != null) {
+            filters.put("status", status.name());
+        }
+        if (orderId != null) {
+            filters.put("orderId", orderId);
+        }
+        return filters;
+    }
 }
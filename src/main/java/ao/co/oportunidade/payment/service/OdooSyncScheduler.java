@@ -0,0 +1,218 @@
+package ao.co.oportunidade.payment.service;
+
+import ao.co.oportunidade.payment.model.PaymentTransaction;
+import ao.co.oportunidade.webhook.health.WebhookMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduler;
+import io.quarkus.virtual.threads.VirtualThreads;
+import io.smallrye.faulttolerance.api.CircuitBreakerMaintenance;
+import io.smallrye.faulttolerance.api.CircuitBreakerState;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.faulttolerance.exceptions.FaultToleranceException;
+import org.jboss.logging.Logger;
+import solutions.envision.odoo.dto.OdooWebhookResponse;
+import solutions.envision.odoo.service.OdooApiClient;
+import solutions.envision.odoo.service.OdooApiGateway;
+import solutions.envision.odoo.service.OdooPaymentService;
+import solutions.envision.service.BoundedExecutor;
+import solutions.envision.service.MicroBatcher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pipeline stage pushing committed payment transactions to Odoo.
+ * Claims due transactions in batches and sends them with at most
+ * {@code odoo.sync.max-concurrency} calls in flight, outside any database transaction.
+ * <p>
+ * With {@code odoo.sync.bulk.enabled} the claimed transactions are grouped into multi-payment
+ * requests of up to {@code odoo.sync.bulk.max-size}, sent when full or once the oldest one has
+ * waited {@code odoo.sync.bulk.linger}; otherwise each transaction is sent on its own. Bulk mode
+ * relies on the multi-payment endpoint documented on {@link OdooApiClient#sendPayments}.
+ * <p>
+ * While the Odoo circuit breaker is open only one transaction per poll is claimed, as a probe;
+ * the others stay pending in the database and drain once it closes. Claims that fail fast on the
+ * breaker or the bulkhead are given back without counting an attempt. The pending backlog and the
+ * breaker state (0 closed, 1 open, 2 half-open) are published as the {@code odoo.sync.backlog}
+ * and {@code odoo.sync.circuit.state} gauges.
+ */
+@ApplicationScoped
+public class OdooSyncScheduler {
+
+    private static final Logger LOG = Logger.getLogger(OdooSyncScheduler.class);
+
+    @Inject
+    OdooSyncService odooSyncService;
+
+    @Inject
+    OdooPaymentService odooPaymentService;
+
+    @Inject
+    @VirtualThreads
+    ExecutorService syncExecutor;
+
+    @Inject
+    WebhookMetrics metrics;
+
+    @Inject
+    CircuitBreakerMaintenance circuitBreakers;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    Scheduler scheduler;
+
+    @ConfigProperty(name = "odoo.sync.batch-size", defaultValue = "50")
+    int batchSize;
+
+    @ConfigProperty(name = "odoo.sync.max-concurrency", defaultValue = "8")
+    int maxConcurrency;
+
+    @ConfigProperty(name = "odoo.sync.bulk.enabled", defaultValue = "false")
+    boolean bulkEnabled;
+
+    @ConfigProperty(name = "odoo.sync.bulk.max-size", defaultValue = "100")
+    int bulkMaxSize;
+
+    @ConfigProperty(name = "odoo.sync.bulk.linger", defaultValue = "1s")
+    Duration bulkLinger;
+
+    private BoundedExecutor boundedExecutor;
+    private MicroBatcher<PaymentTransaction> bulkBatcher;
+    private final AtomicLong backlog = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        boundedExecutor = new BoundedExecutor(syncExecutor, maxConcurrency);
+        bulkBatcher = new MicroBatcher<>(bulkMaxSize, bulkLinger, this::submitBulk);
+        Gauge.builder("odoo.sync.backlog", backlog, AtomicLong::get)
+                .description("Payment transactions waiting to be synced to Odoo")
+                .register(registry);
+        Gauge.builder("odoo.sync.circuit.state", this, scheduler -> scheduler.circuitState().ordinal())
+                .description("State of the Odoo circuit breaker: 0 closed, 1 open, 2 half-open")
+                .register(registry);
+    }
+
+    /**
+     * Sync due transactions until a batch comes back short.
+     */
+    @Scheduled(every = "${odoo.sync.poll-interval:2s}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void sync() {
+        backlog.set(odooSyncService.countBacklog());
+        List<PaymentTransaction> claimed;
+        do {
+            // The breaker only half-opens on a call, so an open one still gets a single probe
+            final boolean probing = circuitState() == CircuitBreakerState.OPEN;
+            claimed = odooSyncService.claimBatch(probing ? 1 : batchSize);
+            claimed.forEach(bulkEnabled ? bulkBatcher::add : this::submit);
+            if (probing) {
+                return;
+            }
+        } while (claimed.size() == batchSize);
+    }
+
+    /**
+     * Schedule the linger flush of multi-payment requests, only when bulk mode is enabled.
+     */
+    void scheduleBulkFlush(@Observes StartupEvent event) {
+        if (bulkEnabled) {
+            scheduler.newJob(OdooSyncScheduler.class.getName() + "#flushBulk")
+                    .setInterval(bulkLinger.toString())
+                    .setConcurrentExecution(Scheduled.ConcurrentExecution.SKIP)
+                    .setTask(execution -> flushBulk())
+                    .schedule();
+        }
+    }
+
+    /**
+     * Send the pending multi-payment request once it has lingered long enough.
+     */
+    void flushBulk() {
+        bulkBatcher.flushIfLingering();
+    }
+
+    private void submit(PaymentTransaction transaction) {
+        if (!boundedExecutor.submit(() -> send(transaction))) {
+            LOG.warnf("Sync executor rejected transaction %s, it will be retried after its lease expires",
+                    transaction.getId());
+        }
+    }
+
+    private CircuitBreakerState circuitState() {
+        return circuitBreakers.currentState(OdooApiGateway.CIRCUIT_BREAKER);
+    }
+
+    private void submitBulk(List<PaymentTransaction> transactions) {
+        if (!boundedExecutor.submit(() -> sendBulk(transactions))) {
+            LOG.warnf("Sync executor rejected %d transactions, they will be retried after their lease expires",
+                    transactions.size());
+        }
+    }
+
+    private void sendBulk(List<PaymentTransaction> transactions) {
+        final List<OdooWebhookResponse> results;
+        try {
+            results = sendToOdoo(transactions);
+        } catch (FaultToleranceException e) {
+            transactions.forEach(odooSyncService::release);
+            return;
+        } catch (Exception e) {
+            transactions.forEach(transaction -> odooSyncService.markFailed(transaction, e.getMessage()));
+            return;
+        }
+        for (int i = 0; i < transactions.size(); i++) {
+            final OdooWebhookResponse result = results.get(i);
+            if (Boolean.TRUE.equals(result.getSuccess())) {
+                odooSyncService.markSynced(transactions.get(i));
+            } else {
+                odooSyncService.markFailed(transactions.get(i), "Odoo rejected payment: " + result.getError());
+            }
+        }
+    }
+
+    private void send(PaymentTransaction transaction) {
+        try {
+            sendToOdoo(transaction);
+            odooSyncService.markSynced(transaction);
+        } catch (FaultToleranceException e) {
+            odooSyncService.release(transaction);
+        } catch (Exception e) {
+            odooSyncService.markFailed(transaction, e.getMessage());
+        }
+    }
+
+    private void sendToOdoo(PaymentTransaction transaction) {
+        final Timer.Sample sample = metrics.start();
+        String outcome = WebhookMetrics.OUTCOME_ERROR;
+        try {
+            odooPaymentService.sendPaymentToOdoo(transaction);
+            outcome = WebhookMetrics.OUTCOME_SUCCESS;
+        } finally {
+            metrics.stop(sample, WebhookMetrics.Stage.ODOO_CALL, outcome);
+        }
+    }
+
+    private List<OdooWebhookResponse> sendToOdoo(List<PaymentTransaction> transactions) {
+        final Timer.Sample sample = metrics.start();
+        String outcome = WebhookMetrics.OUTCOME_ERROR;
+        try {
+            final List<OdooWebhookResponse> results = odooPaymentService.sendPaymentsToOdoo(transactions);
+            outcome = WebhookMetrics.OUTCOME_SUCCESS;
+            return results;
+        } finally {
+            metrics.stop(sample, WebhookMetrics.Stage.ODOO_CALL, outcome);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package ao.co.oportunidade.payment.service;
+
+import ao.co.oportunidade.payment.entity.PaymentTransactionRepository;
+import ao.co.oportunidade.payment.model.PaymentTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Transactional bookkeeping of the Odoo sync stage.
+ * Each method runs in its own short transaction, never spanning a call to Odoo.
+ */
+@ApplicationScoped
+public class OdooSyncService {
+
+    private static final Logger LOG = Logger.getLogger(OdooSyncService.class);
+
+    @Inject
+    PaymentTransactionRepository paymentTransactionRepository;
+
+    @ConfigProperty(name = "odoo.sync.lease", defaultValue = "2M")
+    Duration lease;
+
+    @ConfigProperty(name = "odoo.sync.max-attempts", defaultValue = "8")
+    int maxAttempts;
+
+    @ConfigProperty(name = "odoo.sync.initial-backoff", defaultValue = "10S")
+    Duration initialBackoff;
+
+    @ConfigProperty(name = "odoo.sync.max-backoff", defaultValue = "30M")
+    Duration maxBackoff;
+
+    /**
+     * Claim a batch of transactions whose Odoo sync is due.
+     *
+     * @param limit the maximum number of transactions
+     * @return the claimed transactions
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public List<PaymentTransaction> claimBatch(int limit) {
+        final Instant now = Instant.now();
+        return paymentTransactionRepository.claimDueForOdooSync(now, now.plus(lease), limit);
+    }
+
+    /**
+     * Record a successful sync together with the payment ID assigned by Odoo.
+     *
+     * @param transaction the synced transaction
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void markSynced(PaymentTransaction transaction) {
+        paymentTransactionRepository.recordOdooSync(transaction.getId(),
+                PaymentTransaction.OdooSyncStatus.SYNCED, transaction.getPaymentId(), null, null);
+    }
+
+    /**
+     * Record a failed sync, scheduling a retry with exponential backoff
+     * until {@code odoo.sync.max-attempts} is reached.
+     *
+     * @param transaction the transaction that failed to sync
+     * @param error the failure reason
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void markFailed(PaymentTransaction transaction, String error) {
+        final int attempts = transaction.getOdooSyncAttempts();
+        if (attempts >= maxAttempts) {
+            LOG.errorf("Giving up Odoo sync of transaction %s after %d attempts", transaction.getId(), attempts);
+            paymentTransactionRepository.recordOdooSync(transaction.getId(),
+                    PaymentTransaction.OdooSyncStatus.FAILED, null, null, error);
+            return;
+        }
+        final Instant nextAttemptAt = Instant.now().plus(backoff(attempts));
+        LOG.warnf("Odoo sync of transaction %s failed (attempt %d), retrying at %s",
+                transaction.getId(), attempts, nextAttemptAt);
+        paymentTransactionRepository.recordOdooSync(transaction.getId(),
+                PaymentTransaction.OdooSyncStatus.PENDING, null, nextAttemptAt, error);
+    }
+
+    /**
+     * Give a claimed transaction back to the backlog, due immediately and without counting
+     * the attempt, because Odoo was never called.
+     *
+     * @param transaction the claimed transaction
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void release(PaymentTransaction transaction) {
+        paymentTransactionRepository.releaseOdooSyncClaim(transaction.getId(), Instant.now());
+    }
+
+    /**
+     * Count the transactions still waiting to be synced to Odoo.
+     *
+     * @return the backlog size
+     */
+    @Transactional
+    public long countBacklog() {
+        return paymentTransactionRepository.countByOdooSyncStatus(PaymentTransaction.OdooSyncStatus.PENDING);
+    }
+
+    private Duration backoff(int attempts) {
+        final Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
@@ -5,11 +5,13 @@ import ao.co.oportunidade.order.model.Order;
 import ao.co.oportunidade.order.service.OrderService;
 import ao.co.oportunidade.payment.entity.PaymentTransactionRepository;
 import ao.co.oportunidade.payment.model.PaymentTransaction;
-import solutions.envision.odoo.service.OdooPaymentService;
 import solutions.envision.service.BasicApplicationService;
 import ao.co.oportunidade.webhook.dto.AppyPayWebhookPayload;
 import ao.co.oportunidade.webhook.dto.ReferenceInfo;
+import ao.co.oportunidade.webhook.health.WebhookMetrics;
+import io.micrometer.core.instrument.Timer;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import org.jboss.logging.Logger;
 
@@ -19,6 +21,7 @@ import java.util.UUID;
 
 /**
  * Service for processing payment webhooks and managing payment lifecycle.
+ * Created transactions are pushed to Odoo afterwards by the {@link OdooSyncScheduler}.
  */
 @ApplicationScoped
 public class PaymentProcessService extends
@@ -27,16 +30,14 @@ public class PaymentProcessService extends
 
     private static final Logger LOG = Logger.getLogger(PaymentProcessService.class);
 
-    private final OdooPaymentService odooPaymentService;
-
-
-    public PaymentProcessService(OdooPaymentService odooPaymentService) {
-        this.odooPaymentService = odooPaymentService;
-    }
+    @Inject
+    WebhookMetrics metrics;
 
     /**
      * Process the AppyPay webhook payload.
-     * Routes to appropriate handler based on payment status.
+     * Routes to appropriate handler based on payment status. A missing or unknown status
+     * fails the processing, so the event is retried and ends up dead-lettered instead of
+     * being marked processed without effect.
      *
      * @param payload the webhook payload
      */
@@ -45,30 +46,57 @@ public class PaymentProcessService extends
         LOG.infof("Processing webhook for transaction: %s, status: %s", 
                 payload.getId(), payload.getStatus());
 
+        final Timer.Sample sample = metrics.start();
+        final PaymentTransaction.TransactionStatus status = resolveStatus(payload.getStatus());
+        final String statusTag = status != null ? status.name().toLowerCase() : "unknown";
         try {
-            switch (payload.getStatus().toUpperCase()) {
-                case "SUCCESS":
+            if (status == null) {
+                throw new IllegalArgumentException("Unknown payment status: " + payload.getStatus());
+            }
+            switch (status) {
+                case SUCCESS:
                     handleSuccessfulPayment(payload);
                     break;
-                case "PENDING":
+                case PENDING:
                     handlePendingPayment(payload);
                     break;
-                case "FAILED":
+                case FAILED:
                     handleFailedPayment(payload);
                     break;
-                case "CANCELLED":
+                case CANCELLED:
                     handleCancelledPayment(payload);
                     break;
                 default:
-                    LOG.warnf("Unknown payment status: %s for transaction: %s", 
-                            payload.getStatus(), payload.getId());
+                    LOG.warnf("Unhandled payment status: %s for transaction: %s",
+                            status, payload.getId());
             }
+            metrics.stopProcess(sample, statusTag, WebhookMetrics.OUTCOME_SUCCESS);
         } catch (Exception e) {
+            metrics.stopProcess(sample, statusTag, WebhookMetrics.OUTCOME_ERROR);
             LOG.errorf(e, "Error processing webhook for transaction: %s", payload.getId());
             throw new RuntimeException("Failed to process payment webhook", e);
         }
     }
 
+    /**
+     * Resolve the AppyPay payment status to the transaction status it is routed by.
+     *
+     * @param status the AppyPay status, case-insensitive
+     * @return the transaction status, or null if the status is unknown
+     */
+    public static PaymentTransaction.TransactionStatus resolveStatus(final String status) {
+        if (status == null) {
+            return null;
+        }
+        return switch (status.toUpperCase()) {
+            case "SUCCESS" -> PaymentTransaction.TransactionStatus.SUCCESS;
+            case "PENDING" -> PaymentTransaction.TransactionStatus.PENDING;
+            case "FAILED" -> PaymentTransaction.TransactionStatus.FAILED;
+            case "CANCELLED" -> PaymentTransaction.TransactionStatus.CANCELLED;
+            default -> null;
+        };
+    }
+
     private void handleSuccessfulPayment(final AppyPayWebhookPayload payload) {
         LOG.infof("Handling successful payment: %s", payload.getId());
 
@@ -77,8 +105,7 @@ public class PaymentProcessService extends
         order.setStatus(Order.OrderStatus.PAID);
         orderService.saveDomain(order);
 
-        final PaymentTransaction paymentTransaction = createPaymentTransaction(payload, order, PaymentTransaction.TransactionStatus.SUCCESS);
-        odooPaymentService.sendPaymentToOdoo(paymentTransaction);
+        createPaymentTransaction(payload, order, PaymentTransaction.TransactionStatus.SUCCESS);
 
         LOG.infof("Successfully processed payment for order: %s",
                 order.getMerchantTransactionId());
@@ -91,8 +118,7 @@ public class PaymentProcessService extends
         order.setStatus(Order.OrderStatus.PENDING);
         getSupportingDomainService().saveDomain(order);
 
-        final PaymentTransaction paymentTransaction = createPaymentTransaction(payload, order, PaymentTransaction.TransactionStatus.PENDING);
-        odooPaymentService.sendPaymentToOdoo(paymentTransaction);
+        createPaymentTransaction(payload, order, PaymentTransaction.TransactionStatus.PENDING);
 
         LOG.infof("Payment pending for order: %s", order.getMerchantTransactionId());
     }
@@ -104,14 +130,7 @@ public class PaymentProcessService extends
         order.setStatus(Order.OrderStatus.FAILED);
         getSupportingDomainService().saveDomain(order);
 
-        final PaymentTransaction transaction = createPaymentTransaction(
-                payload, order, PaymentTransaction.TransactionStatus.FAILED);
-        
-        if (payload.getResponseStatus() != null) {
-            transaction.setErrorMessage(payload.getResponseStatus().getMessage());
-            getMainDomainService().saveDomain(transaction);
-        }
-        odooPaymentService.sendPaymentToOdoo(transaction);
+        createPaymentTransaction(payload, order, PaymentTransaction.TransactionStatus.FAILED);
 
         LOG.infof("Payment failed for order: %s", order.getMerchantTransactionId());
     }
@@ -127,8 +146,7 @@ public class PaymentProcessService extends
             order.setStatus(Order.OrderStatus.CANCELLED);
             getSupportingDomainService().saveDomain(order);
 
-            final PaymentTransaction paymentTransaction = createPaymentTransaction(payload, order, PaymentTransaction.TransactionStatus.CANCELLED);
-            odooPaymentService.sendPaymentToOdoo(paymentTransaction);
+            createPaymentTransaction(payload, order, PaymentTransaction.TransactionStatus.CANCELLED);
 
             LOG.infof("Payment cancelled for order: %s", order.getMerchantTransactionId());
         } else {
@@ -136,22 +154,33 @@ public class PaymentProcessService extends
         }
     }
 
+    /**
+     * Create the payment transaction of a webhook, or update the one already stored for its
+     * AppyPay transaction ID, so that processing the same webhook again, after a crash or a
+     * lease takeover, does not hit the unique AppyPay transaction ID. The transaction is
+     * queued for the Odoo sync again only when its status changed.
+     */
     private PaymentTransaction createPaymentTransaction(
             final AppyPayWebhookPayload payload,
             final Order order,
             final PaymentTransaction.TransactionStatus status) {
 
-        final PaymentTransaction transaction = new PaymentTransaction();
-        transaction.setId(UUID.randomUUID());
+        final Optional<PaymentTransaction> existing =
+                getMainDomainService().findByAppyPayTransactionId(payload.getId());
+        final PaymentTransaction transaction = existing.orElseGet(PaymentTransaction::new);
+        final boolean statusChanged = transaction.getStatus() != status;
+        if (existing.isEmpty()) {
+            transaction.setId(UUID.randomUUID());
+            transaction.setAppypayTransactionId(payload.getId());
+            transaction.setCreatedDate(Instant.now());
+        }
         transaction.setOrderId(order.getId());
-        transaction.setAppypayTransactionId(payload.getId());
         transaction.setAmount(payload.getAmount());
         transaction.setCurrency(payload.getCurrency());
         transaction.setStatus(status);
         transaction.setPaymentMethod(payload.getPaymentMethod());
         transaction.setTransactionDate(payload.getCreatedDate() != null ?
                 payload.getCreatedDate() : Instant.now());
-        transaction.setCreatedDate(Instant.now());
         transaction.setUpdatedDate(Instant.now());
 
         // Set reference info if available
@@ -161,8 +190,20 @@ public class PaymentProcessService extends
             transaction.setReferenceEntity(refInfo.getEntity());
         }
 
+        // Queue the transaction for the Odoo sync stage
+        if (statusChanged) {
+            transaction.setOdooSyncStatus(PaymentTransaction.OdooSyncStatus.PENDING);
+            transaction.setOdooSyncAttempts(0);
+            transaction.setOdooNextAttemptAt(Instant.now());
+        }
+
+        // Set the failure reason before the single save of this transaction
+        if (status == PaymentTransaction.TransactionStatus.FAILED && payload.getResponseStatus() != null) {
+            transaction.setErrorMessage(payload.getResponseStatus().getMessage());
+        }
+
         getMainDomainService().saveDomain(transaction);
-        LOG.infof("Created payment transaction: %s for order: %s",
+        LOG.infof("%s payment transaction: %s for order: %s", existing.isPresent() ? "Updated" : "Created",
                 transaction.getId(), order.getId());
 
         return transaction;
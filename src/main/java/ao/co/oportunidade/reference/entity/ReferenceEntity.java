@@ -18,7 +18,10 @@ import java.util.UUID;
 @AllArgsConstructor
 
         @Entity
-        @Table(name = "reference")
+        @Table(name = "reference", indexes = {
+                @Index(name = "idx_reference_created_id", columnList = "createdDate, id"),
+                @Index(name = "idx_reference_number", columnList = "referenceNumber", unique = true)
+        })
         @NamedQueries({
                 @NamedQuery(
                         name = ReferenceEntity.FIND_ALL,
@@ -27,13 +30,19 @@ import java.util.UUID;
                 @NamedQuery(
                         name = ReferenceEntity.EMPLOYEE_FIND_BY_REFERENCE,
                         query = "SELECT r FROM ReferenceEntity r WHERE r.id = :id"
+                ),
+                @NamedQuery(
+                        name = ReferenceEntity.FIND_BY_REFERENCE_NUMBER,
+                        query = "SELECT r FROM ReferenceEntity r WHERE r.referenceNumber = :referenceNumber ORDER BY r.createdDate, r.id"
                 )
 })
 public class ReferenceEntity extends DomainEntity {
 
     public static final String FIND_ALL = "Reference.findAll";
     public static final String EMPLOYEE_FIND_BY_REFERENCE = "Employee.findByReference";
+    public static final String FIND_BY_REFERENCE_NUMBER = "Reference.findByReferenceNumber";
     public static final String PRIMARY_KEY = "id";
+    public static final String REFERENCE_NUMBER = "referenceNumber";
 
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -57,4 +66,11 @@ public class ReferenceEntity extends DomainEntity {
     private Instant createdDate;
     private Instant updatedDate;
 
+    @PrePersist
+    protected void onCreate() {
+        if (createdDate == null) {
+            createdDate = Instant.now();
+        }
+    }
+
 }
@@ -33,25 +33,22 @@ public class ReferenceRepository extends Repository<Reference,ReferenceEntity, R
 
 
     /**
-     * Find reference by reference number.
+     * Find reference by reference number. Lookups are cached by {@code ReferenceService};
+     * should the number have been stored twice, the earliest reference is returned.
      *
      * @param referenceNumber the reference number
      * @return Optional containing the reference if found
      */
     public Optional<Reference> findByReferenceNumber(String referenceNumber) {
-        try {
-            List<ReferenceEntity> results = getEntityManager()
-                    .createQuery("SELECT r FROM ReferenceEntity r WHERE r.referenceNumber = :refNum", ReferenceEntity.class)
-                    .setParameter("refNum", referenceNumber)
-                    .getResultList();
-
-            if (results.isEmpty()) {
-                return Optional.empty();
-            }
-
-            return Optional.ofNullable(getMapper().mapToDomain(results.getFirst()));
-        } catch (Exception e) {
+        if (referenceNumber == null) {
             return Optional.empty();
         }
+        return getEntityManager()
+                .createNamedQuery(ReferenceEntity.FIND_BY_REFERENCE_NUMBER, ReferenceEntity.class)
+                .setParameter(ReferenceEntity.REFERENCE_NUMBER, referenceNumber)
+                .setMaxResults(1)
+                .getResultStream()
+                .findFirst()
+                .map(getMapper()::mapToDomain);
     }
 }
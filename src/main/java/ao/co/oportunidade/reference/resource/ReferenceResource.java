@@ -3,30 +3,52 @@ package ao.co.oportunidade.reference.resource;
 import solutions.envision.resource.Resource;
 import ao.co.oportunidade.reference.dto.ReferenceDTO;
 import ao.co.oportunidade.reference.model.Reference;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
-import java.util.Collection;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.util.HashMap;
+import java.util.Map;
 
 import static solutions.envision.resource.Resource.API_VERSION_PATH;
 
+@RunOnVirtualThread
 @Path(API_VERSION_PATH +"/references")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class ReferenceResource extends Resource<ReferenceDTO,Reference> {
 
     @GET
-    public Collection<ReferenceDTO> getAllReferences() {
-        return getService().getAllDomains().stream()
-                .map(getMapper()::mapToDto)
-                .toList();
+    public Response getAllReferences(@QueryParam("after") String after,
+                                     @QueryParam("limit") @DefaultValue(DEFAULT_PAGE_SIZE) int limit,
+                                     @QueryParam("active") Boolean active) {
+        return page(after, limit, filters(active));
+    }
+
+    @GET
+    @Path("/stream")
+    @Produces(NDJSON)
+    public StreamingOutput streamReferences(@QueryParam("active") Boolean active) {
+        return stream(filters(active));
     }
 
     @POST
     public void createReference(ReferenceDTO reference) {
         getService().saveDomain(getMapper().mapToDomain(reference));
     }
-}
\ No newline at end of file
+
+    private static Map<String, Object> filters(Boolean active) {
+        final Map<String, Object> filters = new HashMap<>();
+        if (active != null) {
+            filters.put("isActive", active);
+        }
+        return filters;
+    }
+}
@@ -2,11 +2,17 @@ package ao.co.oportunidade.reference.service;
 
 import ao.co.oportunidade.reference.entity.ReferenceRepository;
 import ao.co.oportunidade.reference.model.Reference;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import solutions.envision.model.DomainNotCreatedException;
 import solutions.envision.service.DomainService;
+import solutions.envision.service.TransactionCallbacks;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -14,6 +20,13 @@ import java.util.logging.Logger;
 @ApplicationScoped
 public class ReferenceService extends DomainService<Reference, ReferenceRepository> {
 
+    @Inject
+    @CacheName("reference-by-number")
+    Cache referenceCache;
+
+    @Inject
+    TransactionCallbacks transactionCallbacks;
+
     /**
      * @return
      */
@@ -24,6 +37,9 @@ public class ReferenceService extends DomainService<Reference, ReferenceReposito
     }
 
     /**
+     * Saves the reference and evicts its cached lookup, again once the current
+     * transaction completes so a concurrent reader cannot re-cache the old row.
+     *
      * @param reference
      */
     @Override
@@ -35,10 +51,45 @@ public class ReferenceService extends DomainService<Reference, ReferenceReposito
             throw new RuntimeException(e);
         }
         getRepository().save(reference);
+        invalidateAfterCompletion(reference.getReferenceNumber());
     }
 
+    /**
+     * Read-through lookup by reference number. Only found references are cached, so a
+     * reference created later is picked up on the next call. Size, TTL and hit/miss metrics
+     * are configured under {@code quarkus.cache.caffeine.reference-by-number}.
+     *
+     * @param referenceNumber the reference number
+     * @return the reference, or null if none exists
+     */
     public Reference getReferenceByNumber(String referenceNumber) {
-        return  getRepository().findByReferenceNumber(referenceNumber).orElse(null);
+        if (referenceNumber == null) {
+            return null;
+        }
+        final CaffeineCache cache = referenceCache.as(CaffeineCache.class);
+        final CompletableFuture<Reference> cached = cache.getIfPresent(referenceNumber);
+        if (cached != null) {
+            return cached.join();
+        }
+        final Reference reference = getRepository().findByReferenceNumber(referenceNumber).orElse(null);
+        if (reference != null) {
+            cache.put(referenceNumber, CompletableFuture.completedFuture(reference));
+        }
+        return reference;
     }
-}
 
+    /**
+     * Drop all cached references, e.g. after references were deleted.
+     */
+    public void invalidateAll() {
+        referenceCache.invalidateAll().await().indefinitely();
+    }
+
+    private void invalidateAfterCompletion(String referenceNumber) {
+        if (referenceNumber == null) {
+            return;
+        }
+        referenceCache.invalidate(referenceNumber).await().indefinitely();
+        transactionCallbacks.afterCompletion(status -> referenceCache.invalidate(referenceNumber).await().indefinitely());
+    }
+}
@@ -1,6 +1,7 @@
 package ao.co.oportunidade.webhook;
 
 import solutions.envision.model.Domain;
+import solutions.envision.model.VersionedDomain;
 import lombok.*;
 
 import java.time.Instant;
@@ -15,20 +16,22 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class WebhookEvent extends Domain {
+public class WebhookEvent extends Domain implements VersionedDomain {
 
     private UUID id;
     private String appypayTransactionId;
     private String merchantTransactionId;
     private String webhookType;
     private ProcessingStatus processingStatus;
-    private String payload;
+    private WebhookPayload payload;
     private Instant receivedAt;
     private Instant processedAt;
     private int retryCount;
+    private Instant nextAttemptAt;
     private String errorMessage;
     private Instant createdDate;
     private Instant updatedDate;
+    private Long version;
 
     @Override
     public UUID getId() {
@@ -43,6 +46,13 @@ public class WebhookEvent extends Domain {
         PROCESSING,
         PROCESSED,
         FAILED,
-        DEAD_LETTER
+        DEAD_LETTER;
+
+        /**
+         * Whether a redelivery with this status must be ignored.
+         */
+        public boolean isHandled() {
+            return this == PROCESSING || this == PROCESSED;
+        }
     }
 }
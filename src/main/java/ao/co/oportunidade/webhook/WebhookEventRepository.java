@@ -1,13 +1,21 @@
 package ao.co.oportunidade.webhook;
 
 import solutions.envision.entity.Repository;
+import solutions.envision.entity.SaveMode;
 import ao.co.oportunidade.webhook.entity.WebhookEventEntity;
 import ao.co.oportunidade.webhook.entity.WebhookEventEntityMapper;
+import ao.co.oportunidade.webhook.entity.WebhookPayloadCodecs;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Repository for WebhookEvent domain following DDD principles.
@@ -15,6 +23,10 @@ import java.util.Optional;
 @ApplicationScoped
 public class WebhookEventRepository extends Repository<WebhookEvent, WebhookEventEntity,WebhookEventEntityMapper> {
 
+    private static final int SKIP_LOCKED = -2;
+
+    @Inject
+    WebhookPayloadCodecs payloadCodecs;
 
     @Override
     protected Collection<WebhookEvent> findDomains() {
@@ -27,6 +39,11 @@ public class WebhookEventRepository extends Repository<WebhookEvent, WebhookEven
                 .toList();
     }
 
+    @Override
+    protected SaveMode getSaveMode() {
+        return SaveMode.VERSIONED;
+    }
+
     @Override
     public Optional<WebhookEvent> findDomainById(WebhookEvent domain) {
         try {
@@ -63,6 +80,24 @@ public class WebhookEventRepository extends Repository<WebhookEvent, WebhookEven
         }
     }
 
+    /**
+     * Find the webhook events of many AppyPay transaction IDs in one query.
+     *
+     * @param appypayTransactionIds the AppyPay transaction IDs
+     * @return the webhook events found, in no particular order
+     */
+    public List<WebhookEvent> findByAppyPayTransactionIds(Collection<String> appypayTransactionIds) {
+        if (appypayTransactionIds.isEmpty()) {
+            return List.of();
+        }
+        return getEntityManager()
+                .createNamedQuery(WebhookEventEntity.FIND_BY_APPYPAY_TX_IDS, WebhookEventEntity.class)
+                .setParameter("appypayTxIds", appypayTransactionIds)
+                .getResultStream()
+                .map(getMapper()::mapToDomain)
+                .toList();
+    }
+
     /**
      * Find webhook events by processing status.
      *
@@ -71,11 +106,202 @@ public class WebhookEventRepository extends Repository<WebhookEvent, WebhookEven
      */
     public List<WebhookEvent> findByStatus(WebhookEvent.ProcessingStatus status) {
         final List<WebhookEventEntity> entities = getEntityManager()
-                .createQuery("SELECT we FROM WebhookEventEntity we WHERE we.processingStatus = :status", WebhookEventEntity.class)
-                .setParameter("status", status.name())
+                .createNamedQuery(WebhookEventEntity.FIND_BY_STATUS, WebhookEventEntity.class)
+                .setParameter("processingStatus", status.name())
                 .getResultList();
         return entities.stream()
                 .map(getMapper()::mapToDomain)
                 .toList();
     }
+
+    /**
+     * Lock failed webhook events whose retry is due and events left in PROCESSING since before
+     * {@code staleBefore}, skipping rows locked by other instances, and clear their next attempt
+     * so they are not claimed again. Abandoned events have their lost attempt counted and are
+     * moved to FAILED, or to DEAD_LETTER once more than {@code maxRetryCount} attempts were lost
+     * or failed, so an event that keeps crashing its instance ends up dead-lettered.
+     *
+     * @param now the current time
+     * @param staleBefore events in PROCESSING last updated before this instant are abandoned
+     * @param maxRetryCount the number of retries after which an abandoned event is dead-lettered
+     * @param limit the maximum number of events
+     * @return the claimed events, dead-lettered ones included
+     */
+    public List<WebhookEvent> claimDueForRetry(Instant now, Instant staleBefore, int maxRetryCount, int limit) {
+        final List<WebhookEventEntity> entities = getEntityManager()
+                .createNamedQuery(WebhookEventEntity.FIND_RETRY_DUE, WebhookEventEntity.class)
+                .setParameter("failed", WebhookEvent.ProcessingStatus.FAILED.name())
+                .setParameter("processing", WebhookEvent.ProcessingStatus.PROCESSING.name())
+                .setParameter("now", now)
+                .setParameter("staleBefore", staleBefore)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint("jakarta.persistence.lock.timeout", SKIP_LOCKED)
+                .setMaxResults(limit)
+                .getResultList();
+        entities.forEach(entity -> {
+            if (WebhookEvent.ProcessingStatus.PROCESSING.name().equals(entity.getProcessingStatus())) {
+                final int attempts = entity.getRetryCount() + 1;
+                entity.setProcessingStatus((attempts > maxRetryCount
+                        ? WebhookEvent.ProcessingStatus.DEAD_LETTER : WebhookEvent.ProcessingStatus.FAILED).name());
+                entity.setRetryCount(attempts);
+                entity.setErrorMessage("Processing lease expired");
+                entity.setUpdatedDate(now);
+            }
+            entity.setNextAttemptAt(null);
+        });
+        return entities.stream()
+                .map(getMapper()::mapToDomain)
+                .toList();
+    }
+
+    /**
+     * Lock processed webhook events received before the given time, skipping rows locked
+     * by other instances.
+     *
+     * @param before the exclusive upper bound of the receive time
+     * @param limit the maximum number of events
+     * @return the IDs of the locked events, oldest first
+     */
+    public List<UUID> lockArchivable(Instant before, int limit) {
+        return getEntityManager()
+                .createNamedQuery(WebhookEventEntity.FIND_ARCHIVABLE, UUID.class)
+                .setParameter("processingStatus", WebhookEvent.ProcessingStatus.PROCESSED.name())
+                .setParameter("before", before)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint("jakarta.persistence.lock.timeout", SKIP_LOCKED)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Find when the oldest processed webhook event received before the given time arrived.
+     *
+     * @param before the exclusive upper bound of the receive time
+     * @return the receive time, if there is such an event
+     */
+    public Optional<Instant> findOldestArchivable(Instant before) {
+        return Optional.ofNullable(getEntityManager()
+                .createNamedQuery(WebhookEventEntity.FIND_OLDEST_ARCHIVABLE, Instant.class)
+                .setParameter("processingStatus", WebhookEvent.ProcessingStatus.PROCESSED.name())
+                .setParameter("before", before)
+                .getSingleResult());
+    }
+
+    /**
+     * Delete webhook events by ID.
+     *
+     * @param ids the event IDs
+     * @return the number of deleted events
+     */
+    public int deleteByIds(Collection<UUID> ids) {
+        return getEntityManager()
+                .createNamedQuery(WebhookEventEntity.DELETE_BY_IDS)
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    /**
+     * Insert a new webhook event unless one with the same AppyPay transaction ID exists,
+     * deciding between new and duplicate in one statement on the unique constraint.
+     * Hibernate renders {@code ON CONFLICT DO NOTHING} on H2 as a plain insert, so H2 uses a
+     * never-applied {@code DO UPDATE} instead, which it emulates with a {@code MERGE};
+     * PostgreSQL keeps {@code DO NOTHING}, which takes no lock on the conflicting row.
+     *
+     * @param event the webhook event to insert
+     * @return true if the event was inserted, false if it is a duplicate
+     */
+    public boolean insertIfAbsent(WebhookEvent event) {
+        final WebhookPayload payload = payloadCodecs.encode(event.getPayload());
+        final String query = getEntityManager().getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof H2Dialect
+                ? WebhookEventEntity.INSERT_IF_ABSENT_MERGE : WebhookEventEntity.INSERT_IF_ABSENT;
+        return getEntityManager()
+                .createNamedQuery(query)
+                .setParameter(WebhookEventEntity.PRIMARY_KEY, event.getId())
+                .setParameter("appypayTxId", event.getAppypayTransactionId())
+                .setParameter("merchantTxId", event.getMerchantTransactionId())
+                .setParameter("webhookType", event.getWebhookType())
+                .setParameter("processingStatus", event.getProcessingStatus().name())
+                .setParameter("payload", payload.getEncoded())
+                .setParameter("payloadCodec", payload.getCodec().tag())
+                .setParameter("receivedAt", event.getReceivedAt())
+                .setParameter("retryCount", event.getRetryCount())
+                .setParameter("createdDate", event.getCreatedDate())
+                .setParameter("updatedDate", event.getUpdatedDate())
+                .executeUpdate() == 1;
+    }
+
+    /**
+     * Move a webhook event to {@code PROCESSING} if its status is one of {@code from}, or if
+     * another claim went stale, in one statement. Only one caller can win the claim.
+     *
+     * @param appypayTransactionId the AppyPay transaction ID
+     * @param from the statuses the event may be claimed from
+     * @param staleBefore claims last updated before this instant are taken over
+     * @param now the current time
+     * @return true if this call claimed the event
+     */
+    public boolean claimForProcessing(String appypayTransactionId, Collection<WebhookEvent.ProcessingStatus> from,
+                                      Instant staleBefore, Instant now) {
+        return getEntityManager()
+                .createNamedQuery(WebhookEventEntity.CLAIM_FOR_PROCESSING)
+                .setParameter("appypayTxId", appypayTransactionId)
+                .setParameter("from", names(from))
+                .setParameter("to", WebhookEvent.ProcessingStatus.PROCESSING.name())
+                .setParameter("staleBefore", staleBefore)
+                .setParameter("now", now)
+                .executeUpdate() == 1;
+    }
+
+    /**
+     * Compare-and-set the processing status of a webhook event in one statement.
+     *
+     * @param appypayTransactionId the AppyPay transaction ID
+     * @param from the statuses the event is expected to have
+     * @param to the new status
+     * @param processedAt the processing time to store, may be null
+     * @param now the current time
+     * @return true if the event had one of the expected statuses and was updated
+     */
+    public boolean compareAndSetStatus(String appypayTransactionId, Collection<WebhookEvent.ProcessingStatus> from,
+                                       WebhookEvent.ProcessingStatus to, Instant processedAt, Instant now) {
+        return getEntityManager()
+                .createNamedQuery(WebhookEventEntity.UPDATE_STATUS)
+                .setParameter("appypayTxId", appypayTransactionId)
+                .setParameter("from", names(from))
+                .setParameter("to", to.name())
+                .setParameter("processedAt", processedAt)
+                .setParameter("now", now)
+                .executeUpdate() == 1;
+    }
+
+    /**
+     * Record a failed processing attempt in one statement, provided the event is still
+     * {@code PROCESSING} with the expected retry count. The retry count is incremented.
+     *
+     * @param appypayTransactionId the AppyPay transaction ID
+     * @param retryCount the retry count the event is expected to have
+     * @param to FAILED or DEAD_LETTER
+     * @param nextAttemptAt when to retry, null for none
+     * @param errorMessage the error message
+     * @param now the current time
+     * @return true if the event was updated
+     */
+    public boolean markFailed(String appypayTransactionId, int retryCount, WebhookEvent.ProcessingStatus to,
+                              Instant nextAttemptAt, String errorMessage, Instant now) {
+        return getEntityManager()
+                .createNamedQuery(WebhookEventEntity.UPDATE_FAILED)
+                .setParameter("appypayTxId", appypayTransactionId)
+                .setParameter("from", WebhookEvent.ProcessingStatus.PROCESSING.name())
+                .setParameter("retryCount", retryCount)
+                .setParameter("to", to.name())
+                .setParameter("nextAttemptAt", nextAttemptAt)
+                .setParameter("errorMessage", errorMessage)
+                .setParameter("now", now)
+                .executeUpdate() == 1;
+    }
+
+    private static List<String> names(Collection<WebhookEvent.ProcessingStatus> statuses) {
+        return statuses.stream().map(Enum::name).toList();
+    }
 }
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import solutions.envision.entity.BatchSaveResult;
 import solutions.envision.model.DomainNotCreatedException;
 
 import java.time.Instant;
@@ -37,6 +38,43 @@ public class WebhookEventService extends DomainService<WebhookEvent, WebhookEven
         getRepository().save(event);
     }
 
+    /**
+     * Validate and insert a new webhook event unless its AppyPay transaction ID is already known.
+     *
+     * @param event the webhook event to insert
+     * @return true if the event was inserted, false if it is a duplicate
+     */
+    public boolean insertIfAbsent(WebhookEvent event) {
+        try {
+            validateDomain(event);
+        } catch (DomainNotCreatedException e) {
+            throw new RuntimeException("Failed to create webhook event", e);
+        }
+        return getRepository().insertIfAbsent(event);
+    }
+
+    /**
+     * Validate and insert new webhook events, each unless its AppyPay transaction ID is already known.
+     * Events failing validation are reported as rejected rows and never reach the database.
+     *
+     * @param events the webhook events to insert
+     * @return the outcome of every event: persisted, skipped as a duplicate, or rejected
+     */
+    public BatchSaveResult<WebhookEvent> insertAllIfAbsent(Collection<WebhookEvent> events) {
+        final BatchSaveResult<WebhookEvent> result = new BatchSaveResult<>();
+        for (WebhookEvent event : events) {
+            try {
+                validateDomain(event);
+            } catch (DomainNotCreatedException | NullPointerException e) {
+                result.reject(event, e);
+                continue;
+            }
+            result.add(event, getRepository().insertIfAbsent(event)
+                    ? BatchSaveResult.Outcome.PERSISTED : BatchSaveResult.Outcome.SKIPPED);
+        }
+        return result;
+    }
+
     /**
      * Find webhook event by AppyPay transaction ID.
      *
@@ -47,6 +85,16 @@ public class WebhookEventService extends DomainService<WebhookEvent, WebhookEven
         return getRepository().findByAppyPayTransactionId(appypayTransactionId);
     }
 
+    /**
+     * Find the webhook events of many AppyPay transaction IDs in one query.
+     *
+     * @param appypayTransactionIds the AppyPay transaction IDs
+     * @return the webhook events found
+     */
+    public List<WebhookEvent> findByAppyPayTransactionIds(Collection<String> appypayTransactionIds) {
+        return getRepository().findByAppyPayTransactionIds(appypayTransactionIds);
+    }
+
     /**
      * Find webhook events by processing status.
      *
@@ -65,11 +113,67 @@ public class WebhookEventService extends DomainService<WebhookEvent, WebhookEven
      */
     public boolean isAlreadyProcessed(String appypayTransactionId) {
         return findByAppyPayTransactionId(appypayTransactionId)
-                .map(event -> event.getProcessingStatus() == WebhookEvent.ProcessingStatus.PROCESSED ||
-                        event.getProcessingStatus() == WebhookEvent.ProcessingStatus.PROCESSING)
+                .map(event -> event.getProcessingStatus().isHandled())
                 .orElse(false);
     }
 
+    /**
+     * Claim failed webhook events whose retry is due and events abandoned in PROCESSING.
+     *
+     * @param now the current time
+     * @param staleBefore events in PROCESSING last updated before this instant are abandoned
+     * @param maxRetryCount the number of retries after which an abandoned event is dead-lettered
+     * @param limit the maximum number of events
+     * @return the claimed events, dead-lettered ones included
+     */
+    public List<WebhookEvent> claimDueForRetry(Instant now, Instant staleBefore, int maxRetryCount, int limit) {
+        return getRepository().claimDueForRetry(now, staleBefore, maxRetryCount, limit);
+    }
+
+    /**
+     * Claim a webhook event for processing.
+     *
+     * @param appypayTransactionId the AppyPay transaction ID
+     * @param from the statuses the event may be claimed from
+     * @param staleBefore claims last updated before this instant are taken over
+     * @return true if this call claimed the event
+     */
+    public boolean claimForProcessing(String appypayTransactionId, Collection<WebhookEvent.ProcessingStatus> from,
+                                      Instant staleBefore) {
+        return getRepository().claimForProcessing(appypayTransactionId, from, staleBefore, Instant.now());
+    }
+
+    /**
+     * Compare-and-set the processing status of a webhook event.
+     *
+     * @param appypayTransactionId the AppyPay transaction ID
+     * @param from the statuses the event is expected to have
+     * @param to the new status
+     * @return true if the event was updated
+     */
+    public boolean compareAndSetStatus(String appypayTransactionId, Collection<WebhookEvent.ProcessingStatus> from,
+                                       WebhookEvent.ProcessingStatus to) {
+        final Instant now = Instant.now();
+        return getRepository().compareAndSetStatus(appypayTransactionId, from, to,
+                to == WebhookEvent.ProcessingStatus.PROCESSED ? now : null, now);
+    }
+
+    /**
+     * Record a failed processing attempt of a webhook event.
+     *
+     * @param appypayTransactionId the AppyPay transaction ID
+     * @param retryCount the retry count the event is expected to have
+     * @param to FAILED or DEAD_LETTER
+     * @param nextAttemptAt when to retry, null for none
+     * @param errorMessage the error message
+     * @return true if the event was updated
+     */
+    public boolean markFailed(String appypayTransactionId, int retryCount, WebhookEvent.ProcessingStatus to,
+                              Instant nextAttemptAt, String errorMessage) {
+        return getRepository().markFailed(appypayTransactionId, retryCount, to, nextAttemptAt, errorMessage,
+                Instant.now());
+    }
+
     /**
      * Update webhook event status.
      *
@@ -91,7 +195,7 @@ public class WebhookEventService extends DomainService<WebhookEvent, WebhookEven
 
         // Store the full payload as JSON string
         try {
-            event.setPayload(objectMapper.writeValueAsString(payload));
+            event.setPayload(WebhookPayload.of(objectMapper.writeValueAsString(payload)));
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Failed to serialize payload", e);
         }
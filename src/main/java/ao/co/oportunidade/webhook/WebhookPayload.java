@@ -0,0 +1,89 @@
+package ao.co.oportunidade.webhook;
+
+import solutions.envision.codec.PayloadCodec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Raw JSON payload of a webhook event, as received or as stored by a {@link PayloadCodec}.
+ * A stored payload is only decoded when its JSON is read, and a received payload is only
+ * encoded once, however often it is written.
+ */
+public final class WebhookPayload {
+
+    private String json;
+    private PayloadCodec codec;
+    private byte[] encoded;
+
+    private WebhookPayload(String json, PayloadCodec codec, byte[] encoded) {
+        this.json = json;
+        this.codec = codec;
+        this.encoded = encoded;
+    }
+
+    /**
+     * Payload as received.
+     *
+     * @param json the raw JSON
+     * @return the payload, or null if the JSON is null
+     */
+    public static WebhookPayload of(String json) {
+        return json != null ? new WebhookPayload(json, null, null) : null;
+    }
+
+    /**
+     * Payload as stored.
+     *
+     * @param codec the codec the payload was encoded with
+     * @param encoded the encoded payload
+     * @return the payload, or null if the encoded payload is null
+     */
+    public static WebhookPayload stored(PayloadCodec codec, byte[] encoded) {
+        return encoded != null ? new WebhookPayload(null, Objects.requireNonNull(codec), encoded) : null;
+    }
+
+    /**
+     * @return the raw JSON, decoded on first access
+     */
+    public synchronized String json() {
+        if (json == null) {
+            json = new String(codec.decode(encoded), StandardCharsets.UTF_8);
+        }
+        return json;
+    }
+
+    /**
+     * Encode the payload with the given codec, unless it is already encoded.
+     * Stored payloads keep their codec, so they are not re-encoded when written back.
+     *
+     * @param writer the codec to encode a received payload with
+     * @return this payload
+     */
+    public synchronized WebhookPayload encode(PayloadCodec writer) {
+        if (encoded == null) {
+            encoded = writer.encode(json.getBytes(StandardCharsets.UTF_8));
+            codec = writer;
+        }
+        return this;
+    }
+
+    /**
+     * @return the codec the payload is encoded with, or null if not encoded yet
+     */
+    public synchronized PayloadCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * @return the encoded payload, or null if not encoded yet
+     */
+    public synchronized byte[] getEncoded() {
+        return encoded;
+    }
+
+    @Override
+    public String toString() {
+        return json();
+    }
+}
@@ -0,0 +1,10 @@
+package ao.co.oportunidade.webhook.dto;
+
+/**
+ * One notification of a batch webhook request.
+ *
+ * @param payload the parsed webhook payload
+ * @param rawPayload the JSON the payload was parsed from
+ */
+public record WebhookBatchItem(AppyPayWebhookPayload payload, String rawPayload) {
+}
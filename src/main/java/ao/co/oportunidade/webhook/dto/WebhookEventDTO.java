@@ -27,6 +27,7 @@ public class WebhookEventDTO extends DTO {
     private Instant receivedAt;
     private Instant processedAt;
     private int retryCount;
+    private Instant nextAttemptAt;
     private String errorMessage;
     private Instant createdDate;
     private Instant updatedDate;
@@ -1,6 +1,7 @@
 package ao.co.oportunidade.webhook.dto;
 
 import ao.co.oportunidade.webhook.WebhookEvent;
+import ao.co.oportunidade.webhook.WebhookPayload;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import solutions.envision.dto.DtoMapper;
@@ -15,6 +16,7 @@ public interface WebhookEventDtoMapper extends DtoMapper<WebhookEventDTO, Webhoo
     WebhookEventDTO mapToDto(WebhookEvent domain);
 
     @Mapping(target = "processingStatus", source = "processingStatus")
+    @Mapping(target = "version", ignore = true)
     WebhookEvent mapToDomain(WebhookEventDTO dto);
 
     default String mapStatusToString(WebhookEvent.ProcessingStatus status) {
@@ -24,4 +26,12 @@ public interface WebhookEventDtoMapper extends DtoMapper<WebhookEventDTO, Webhoo
     default WebhookEvent.ProcessingStatus mapStringToStatus(String status) {
         return status != null ? WebhookEvent.ProcessingStatus.valueOf(status) : null;
     }
+
+    default String mapPayloadToString(WebhookPayload payload) {
+        return payload != null ? payload.json() : null;
+    }
+
+    default WebhookPayload mapStringToPayload(String payload) {
+        return WebhookPayload.of(payload);
+    }
 }
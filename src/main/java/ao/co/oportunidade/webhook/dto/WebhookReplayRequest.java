@@ -0,0 +1,49 @@
+package ao.co.oportunidade.webhook.dto;
+
+import ao.co.oportunidade.webhook.WebhookEvent;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Request to replay failed or dead-lettered webhook events.
+ * Either lists the events to replay, or selects them with the filters.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WebhookReplayRequest {
+
+    /**
+     * AppyPay transaction IDs of the events to replay; when empty, all events matching the filters are replayed
+     */
+    private List<String> appypayTransactionIds;
+
+    /**
+     * Status of the events to replay, FAILED or DEAD_LETTER; both when null
+     */
+    private WebhookEvent.ProcessingStatus status;
+
+    /**
+     * Webhook type of the events to replay, all types when null
+     */
+    private String webhookType;
+
+    /**
+     * Inclusive lower bound of the event creation date
+     */
+    private Instant from;
+
+    /**
+     * Exclusive upper bound of the event creation date
+     */
+    private Instant to;
+
+    /**
+     * Events replayed per second, {@code webhook.replay.rate} when null
+     */
+    private Double ratePerSecond;
+}
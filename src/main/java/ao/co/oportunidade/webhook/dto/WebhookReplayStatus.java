@@ -0,0 +1,32 @@
+package ao.co.oportunidade.webhook.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Progress of a webhook replay job.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WebhookReplayStatus {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private UUID jobId;
+    private State state;
+    private long submitted;
+    private long succeeded;
+    private long failed;
+    private long skipped;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
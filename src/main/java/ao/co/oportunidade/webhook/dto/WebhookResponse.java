@@ -42,6 +42,28 @@ public class WebhookResponse {
                 .build();
     }
 
+    /**
+     * Create a response for a webhook that was already processed
+     */
+    public static WebhookResponse alreadyProcessed(String transactionId) {
+        return WebhookResponse.builder()
+                .status("already_processed")
+                .message("Webhook already processed")
+                .eventId(transactionId)
+                .build();
+    }
+
+    /**
+     * Create a response for a webhook that was already received and is still queued
+     */
+    public static WebhookResponse alreadyReceived(String transactionId) {
+        return WebhookResponse.builder()
+                .status("already_received")
+                .message("Webhook already received")
+                .eventId(transactionId)
+                .build();
+    }
+
     /**
      * Create an error response
      */
@@ -0,0 +1,90 @@
+package ao.co.oportunidade.webhook.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * JPA Entity for archived webhook events.
+ * Processed events are moved here from {@code webhook_events} once they age out of the
+ * live table. On PostgreSQL the table is range-partitioned by month of {@code received_at},
+ * so statements bounded on {@code receivedAt} only touch the matching partitions and expired
+ * months are dropped whole.
+ */
+@Entity
+@Table(name = "webhook_events_archive", indexes = {
+    @Index(name = "idx_webhook_archive_appypay_tx_id", columnList = "appypayTransactionId")
+})
+@NamedQueries({
+    @NamedQuery(
+        name = WebhookEventArchiveEntity.ARCHIVE_EVENTS,
+        query = "INSERT INTO WebhookEventArchiveEntity (id, appypayTransactionId, merchantTransactionId, webhookType, " +
+                "processingStatus, payload, payloadCodec, receivedAt, processedAt, retryCount, errorMessage, createdDate, " +
+                "updatedDate, archivedAt) " +
+                "SELECT we.id, we.appypayTransactionId, we.merchantTransactionId, we.webhookType, we.processingStatus, " +
+                "we.payload, we.payloadCodec, we.receivedAt, we.processedAt, we.retryCount, we.errorMessage, we.createdDate, " +
+                "we.updatedDate, :archivedAt FROM WebhookEventEntity we WHERE we.id IN :ids"
+    ),
+    @NamedQuery(
+        name = WebhookEventArchiveEntity.DELETE_RECEIVED_BEFORE,
+        query = "DELETE FROM WebhookEventArchiveEntity wa WHERE wa.receivedAt < :before"
+    )
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookEventArchiveEntity extends PanacheEntityBase {
+
+    public static final String ARCHIVE_EVENTS = "WebhookEventArchive.archiveEvents";
+    public static final String DELETE_RECEIVED_BEFORE = "WebhookEventArchive.deleteReceivedBefore";
+
+    @Id
+    @Column(name = "id", nullable = false)
+    private UUID id;
+
+    @Column(name = "appypayTransactionId", nullable = false, length = 100)
+    private String appypayTransactionId;
+
+    @Column(name = "merchant_transaction_id", length = 100)
+    private String merchantTransactionId;
+
+    @Column(name = "webhook_type", nullable = false, length = 50)
+    private String webhookType;
+
+    @Column(name = "processingStatus", nullable = false, length = 20)
+    private String processingStatus;
+
+    @Column(name = "payload", nullable = false, length = WebhookEventEntity.PAYLOAD_LENGTH)
+    private byte[] payload;
+
+    @Column(name = "payload_codec", nullable = false, length = 32)
+    private String payloadCodec;
+
+    @Column(name = "received_at", nullable = false)
+    private Instant receivedAt;
+
+    @Column(name = "processed_at")
+    private Instant processedAt;
+
+    @Column(name = "retry_count", nullable = false)
+    private int retryCount;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @Column(name = "updated_date", nullable = false)
+    private Instant updatedDate;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+}
@@ -0,0 +1,110 @@
+package ao.co.oportunidade.webhook.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for the webhook event archive. The partition statements are PostgreSQL specific.
+ */
+@ApplicationScoped
+public class WebhookEventArchiveRepository implements PanacheRepositoryBase<WebhookEventArchiveEntity, UUID> {
+
+    private static final String TABLE = "webhook_events_archive";
+    private static final String PARTITION_PREFIX = TABLE + "_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    /**
+     * Copy webhook events into the archive.
+     *
+     * @param ids the event IDs
+     * @param archivedAt the archive time
+     * @return the number of archived events
+     */
+    public int archive(Collection<UUID> ids, Instant archivedAt) {
+        return getEntityManager()
+                .createNamedQuery(WebhookEventArchiveEntity.ARCHIVE_EVENTS)
+                .setParameter("ids", ids)
+                .setParameter("archivedAt", archivedAt)
+                .executeUpdate();
+    }
+
+    /**
+     * Delete archived events received before the given time. Only the partitions
+     * overlapping the bound are scanned.
+     *
+     * @param before the exclusive upper bound of the receive time
+     * @return the number of deleted events
+     */
+    public int deleteReceivedBefore(Instant before) {
+        return getEntityManager()
+                .createNamedQuery(WebhookEventArchiveEntity.DELETE_RECEIVED_BEFORE)
+                .setParameter("before", before)
+                .executeUpdate();
+    }
+
+    /**
+     * Create the partition holding the events received in a month, unless it exists.
+     * Payloads of the partition are compressed as soon as a row exceeds 128 bytes.
+     *
+     * @param month the month
+     */
+    public void createPartition(YearMonth month) {
+        getEntityManager()
+                .createNativeQuery("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                        + " PARTITION OF " + TABLE
+                        + " FOR VALUES FROM ('" + month.atDay(1) + " 00:00:00')"
+                        + " TO ('" + month.plusMonths(1).atDay(1) + " 00:00:00')"
+                        + " WITH (toast_tuple_target = 128)")
+                .executeUpdate();
+    }
+
+    /**
+     * Find the months that have a partition.
+     *
+     * @return the months, oldest first
+     */
+    @SuppressWarnings("unchecked")
+    public List<YearMonth> findPartitionMonths() {
+        final List<String> names = getEntityManager()
+                .createNativeQuery("SELECT c.relname FROM pg_inherits i "
+                        + "JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "JOIN pg_class p ON p.oid = i.inhparent "
+                        + "WHERE p.relname = '" + TABLE + "'", String.class)
+                .getResultList();
+        return names.stream()
+                .map(WebhookEventArchiveRepository::monthOf)
+                .flatMap(Optional::stream)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Drop the partition of a month with all its events.
+     *
+     * @param month the month
+     */
+    public void dropPartition(YearMonth month) {
+        getEntityManager()
+                .createNativeQuery("DROP TABLE IF EXISTS " + partitionName(month))
+                .executeUpdate();
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    private static Optional<YearMonth> monthOf(String partitionName) {
+        if (!partitionName.startsWith(PARTITION_PREFIX)) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.parse(partitionName.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX));
+    }
+}
@@ -1,6 +1,7 @@
 package ao.co.oportunidade.webhook.entity;
 
 import solutions.envision.entity.DomainEntity;
+import solutions.envision.entity.Versioned;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -13,12 +14,14 @@ import java.util.UUID;
 /**
  * JPA Entity for WebhookEvent persistence.
  * Separated from domain model following DDD principles.
+ * Not second-level cached: rows are inserted and updated through bulk statements,
+ * each of which would evict the whole cache region.
  */
 @Entity
 @Table(name = "webhook_events", indexes = {
     @Index(name = "idx_webhook_appypay_tx_id", columnList = "appypayTransactionId", unique = true),
-    @Index(name = "idx_webhook_status", columnList = "processingStatus"),
-    @Index(name = "idx_webhook_received", columnList = "received_at")
+    @Index(name = "idx_webhook_status_received", columnList = "processingStatus, received_at"),
+    @Index(name = "idx_webhook_retry_due", columnList = "processingStatus, next_attempt_at")
 })
 @NamedQueries({
     @NamedQuery(
@@ -32,18 +35,94 @@ import java.util.UUID;
     @NamedQuery(
         name = WebhookEventEntity.FIND_BY_APPYPAY_TX_ID,
         query = "SELECT we FROM WebhookEventEntity we WHERE we.appypayTransactionId = :appypayTxId"
+    ),
+    @NamedQuery(
+        name = WebhookEventEntity.FIND_BY_APPYPAY_TX_IDS,
+        query = "SELECT we FROM WebhookEventEntity we WHERE we.appypayTransactionId IN :appypayTxIds"
+    ),
+    @NamedQuery(
+        name = WebhookEventEntity.FIND_BY_STATUS,
+        query = "SELECT we FROM WebhookEventEntity we WHERE we.processingStatus = :processingStatus"
+    ),
+    @NamedQuery(
+        name = WebhookEventEntity.FIND_RETRY_DUE,
+        query = "SELECT we FROM WebhookEventEntity we " +
+                "WHERE (we.processingStatus = :failed AND we.nextAttemptAt <= :now) " +
+                "OR (we.processingStatus = :processing AND we.updatedDate < :staleBefore) " +
+                "ORDER BY COALESCE(we.nextAttemptAt, we.updatedDate)"
+    ),
+    @NamedQuery(
+        name = WebhookEventEntity.FIND_ARCHIVABLE,
+        query = "SELECT we.id FROM WebhookEventEntity we WHERE we.processingStatus = :processingStatus " +
+                "AND we.receivedAt < :before ORDER BY we.receivedAt"
+    ),
+    @NamedQuery(
+        name = WebhookEventEntity.FIND_OLDEST_ARCHIVABLE,
+        query = "SELECT MIN(we.receivedAt) FROM WebhookEventEntity we WHERE we.processingStatus = :processingStatus " +
+                "AND we.receivedAt < :before"
+    ),
+    @NamedQuery(
+        name = WebhookEventEntity.DELETE_BY_IDS,
+        query = "DELETE FROM WebhookEventEntity we WHERE we.id IN :ids"
+    ),
+    @NamedQuery(
+        name = WebhookEventEntity.INSERT_IF_ABSENT,
+        query = "INSERT INTO WebhookEventEntity (id, appypayTransactionId, merchantTransactionId, webhookType, " +
+                "processingStatus, payload, payloadCodec, receivedAt, retryCount, createdDate, updatedDate, version) " +
+                "VALUES (:id, :appypayTxId, :merchantTxId, :webhookType, :processingStatus, :payload, :payloadCodec, " +
+                ":receivedAt, :retryCount, :createdDate, :updatedDate, 0) " +
+                "ON CONFLICT (appypayTransactionId) DO NOTHING"
+    ),
+    @NamedQuery(
+        name = WebhookEventEntity.INSERT_IF_ABSENT_MERGE,
+        query = "INSERT INTO WebhookEventEntity (id, appypayTransactionId, merchantTransactionId, webhookType, " +
+                "processingStatus, payload, payloadCodec, receivedAt, retryCount, createdDate, updatedDate, version) " +
+                "VALUES (:id, :appypayTxId, :merchantTxId, :webhookType, :processingStatus, cast(:payload as Binary), :payloadCodec, " +
+                ":receivedAt, :retryCount, :createdDate, :updatedDate, 0) " +
+                "ON CONFLICT (appypayTransactionId) DO UPDATE SET version = excluded.version WHERE 1 = 0"
+    ),
+    @NamedQuery(
+        name = WebhookEventEntity.CLAIM_FOR_PROCESSING,
+        query = "UPDATE WebhookEventEntity we SET we.processingStatus = :to, we.updatedDate = :now, " +
+                "we.version = we.version + 1 WHERE we.appypayTransactionId = :appypayTxId " +
+                "AND (we.processingStatus IN :from OR (we.processingStatus = :to AND we.updatedDate < :staleBefore))"
+    ),
+    @NamedQuery(
+        name = WebhookEventEntity.UPDATE_STATUS,
+        query = "UPDATE WebhookEventEntity we SET we.processingStatus = :to, we.processedAt = COALESCE(:processedAt, we.processedAt), " +
+                "we.updatedDate = :now, we.version = we.version + 1 " +
+                "WHERE we.appypayTransactionId = :appypayTxId AND we.processingStatus IN :from"
+    ),
+    @NamedQuery(
+        name = WebhookEventEntity.UPDATE_FAILED,
+        query = "UPDATE WebhookEventEntity we SET we.processingStatus = :to, we.retryCount = we.retryCount + 1, " +
+                "we.nextAttemptAt = :nextAttemptAt, we.errorMessage = :errorMessage, we.updatedDate = :now, " +
+                "we.version = we.version + 1 WHERE we.appypayTransactionId = :appypayTxId " +
+                "AND we.processingStatus = :from AND we.retryCount = :retryCount"
     )
 })
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-public class WebhookEventEntity extends DomainEntity {
+public class WebhookEventEntity extends DomainEntity implements Versioned {
 
     public static final String FIND_ALL = "WebhookEvent.findAll";
     public static final String FIND_BY_ID = "WebhookEvent.findById";
     public static final String FIND_BY_APPYPAY_TX_ID = "WebhookEvent.findByAppyPayTxId";
+    public static final String FIND_BY_APPYPAY_TX_IDS = "WebhookEvent.findByAppyPayTxIds";
+    public static final String FIND_BY_STATUS = "WebhookEvent.findByStatus";
+    public static final String FIND_RETRY_DUE = "WebhookEvent.findRetryDue";
+    public static final String FIND_ARCHIVABLE = "WebhookEvent.findArchivable";
+    public static final String FIND_OLDEST_ARCHIVABLE = "WebhookEvent.findOldestArchivable";
+    public static final String DELETE_BY_IDS = "WebhookEvent.deleteByIds";
+    public static final String INSERT_IF_ABSENT = "WebhookEvent.insertIfAbsent";
+    public static final String INSERT_IF_ABSENT_MERGE = "WebhookEvent.insertIfAbsentMerge";
+    public static final String CLAIM_FOR_PROCESSING = "WebhookEvent.claimForProcessing";
+    public static final String UPDATE_STATUS = "WebhookEvent.updateStatus";
+    public static final String UPDATE_FAILED = "WebhookEvent.updateFailed";
     public static final String PRIMARY_KEY = "id";
+    public static final int PAYLOAD_LENGTH = 1 << 20;
 
     @Id
     @Column(name = "id", nullable = false)
@@ -61,8 +140,11 @@ public class WebhookEventEntity extends DomainEntity {
     @Column(name = "processingStatus", nullable = false, length = 20)
     private String processingStatus;
 
-    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
-    private String payload;
+    @Column(name = "payload", nullable = false, length = PAYLOAD_LENGTH)
+    private byte[] payload;
+
+    @Column(name = "payload_codec", nullable = false, length = 32)
+    private String payloadCodec;
 
     @Column(name = "received_at", nullable = false)
     private Instant receivedAt;
@@ -73,6 +155,9 @@ public class WebhookEventEntity extends DomainEntity {
     @Column(name = "retry_count", nullable = false)
     private int retryCount;
 
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
 
@@ -82,6 +167,10 @@ public class WebhookEventEntity extends DomainEntity {
     @Column(name = "updated_date", nullable = false)
     private Instant updatedDate;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         if (id == null) {
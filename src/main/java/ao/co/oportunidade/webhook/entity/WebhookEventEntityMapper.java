@@ -1,20 +1,26 @@
 package ao.co.oportunidade.webhook.entity;
 
 import ao.co.oportunidade.webhook.WebhookEvent;
+import org.mapstruct.InjectionStrategy;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import solutions.envision.entity.EntityMapper;
 
 /**
  * MapStruct mapper for WebhookEvent domain and WebhookEventEntity.
+ * Payloads are encoded by {@link WebhookPayloadCodecs} on the way in and left encoded
+ * on the way out, until their JSON is read.
  */
-@Mapper(componentModel = "cdi")
+@Mapper(componentModel = "cdi", uses = WebhookPayloadCodecs.class, injectionStrategy = InjectionStrategy.CONSTRUCTOR)
 public interface WebhookEventEntityMapper extends EntityMapper<WebhookEvent, WebhookEventEntity> {
 
     @Mapping(target = "processingStatus", source = "processingStatus")
+    @Mapping(target = "payload", source = "payload", qualifiedByName = "encodedPayload")
+    @Mapping(target = "payloadCodec", source = "payload", qualifiedByName = "payloadCodec")
     WebhookEventEntity mapToEntity(WebhookEvent domain);
 
     @Mapping(target = "processingStatus", source = "processingStatus")
+    @Mapping(target = "payload", source = "entity", qualifiedByName = "storedPayload")
     WebhookEvent mapToDomain(WebhookEventEntity entity);
 
     default String mapStatusToString(WebhookEvent.ProcessingStatus status) {
@@ -0,0 +1,67 @@
+package ao.co.oportunidade.webhook.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * JPA Entity for the webhook outbox.
+ * A row is written in the same transaction as its webhook event and deleted once the
+ * event has been dispatched, so pending work survives restarts.
+ */
+@Entity
+@Table(name = "webhook_outbox", indexes = {
+    @Index(name = "idx_webhook_outbox_created", columnList = "created_date")
+})
+@NamedQueries({
+    @NamedQuery(
+        name = WebhookOutboxEntity.FIND_CLAIMABLE,
+        query = "SELECT wo FROM WebhookOutboxEntity wo WHERE wo.claimedUntil IS NULL OR wo.claimedUntil < :now ORDER BY wo.createdDate"
+    )
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookOutboxEntity extends PanacheEntityBase {
+
+    public static final String FIND_CLAIMABLE = "WebhookOutbox.findClaimable";
+
+    @Id
+    @Column(name = "id", nullable = false)
+    private UUID id;
+
+    @Column(name = "webhook_event_id", nullable = false)
+    private UUID webhookEventId;
+
+    @Column(name = "appypayTransactionId", nullable = false, length = 100)
+    private String appypayTransactionId;
+
+    @Column(name = "merchantTransactionId", length = 100)
+    private String merchantTransactionId;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "claimed_until")
+    private Instant claimedUntil;
+
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @PrePersist
+    protected void onCreate() {
+        if (id == null) {
+            id = UUID.randomUUID();
+        }
+        if (createdDate == null) {
+            createdDate = Instant.now();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ao.co.oportunidade.webhook.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the webhook outbox table.
+ */
+@ApplicationScoped
+public class WebhookOutboxRepository implements PanacheRepositoryBase<WebhookOutboxEntity, UUID> {
+
+    /**
+     * Lock timeout understood by Hibernate as {@code FOR UPDATE SKIP LOCKED}.
+     */
+    private static final int SKIP_LOCKED = -2;
+
+    /**
+     * Lock up to {@code limit} rows that are not claimed or whose claim expired,
+     * skipping rows locked by other instances.
+     *
+     * @param now the current time
+     * @param limit the maximum number of rows
+     * @return the locked rows, oldest first
+     */
+    public List<WebhookOutboxEntity> lockClaimable(Instant now, int limit) {
+        return getEntityManager()
+                .createNamedQuery(WebhookOutboxEntity.FIND_CLAIMABLE, WebhookOutboxEntity.class)
+                .setParameter("now", now)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint("jakarta.persistence.lock.timeout", SKIP_LOCKED)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,129 @@
+package ao.co.oportunidade.webhook.entity;
+
+import ao.co.oportunidade.webhook.WebhookPayload;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.mapstruct.Named;
+import solutions.envision.codec.GzipPayloadCodec;
+import solutions.envision.codec.IdentityPayloadCodec;
+import solutions.envision.codec.PayloadCodec;
+import solutions.envision.codec.ZstdPayloadCodec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Codecs of stored webhook payloads. New payloads are written with the codec configured
+ * by {@code webhook.payload.codec}; stored payloads are read with the codec named by their tag,
+ * so the configured codec can change without migrating stored payloads. With
+ * {@code webhook.payload.zstd-dictionaries}, zstd writes with the first dictionary and reads
+ * with any of them: keep retired dictionaries listed while payloads compressed with them are stored.
+ */
+@ApplicationScoped
+public class WebhookPayloadCodecs {
+
+    private final PayloadCodec writer;
+    private final Map<String, PayloadCodec> codecs = new LinkedHashMap<>();
+
+    @Inject
+    public WebhookPayloadCodecs(
+            @ConfigProperty(name = "webhook.payload.codec", defaultValue = IdentityPayloadCodec.TAG) String codec,
+            @ConfigProperty(name = "webhook.payload.zstd-level", defaultValue = "3") int zstdLevel,
+            @ConfigProperty(name = "webhook.payload.zstd-dictionaries") Optional<List<Path>> zstdDictionaries) {
+        final List<PayloadCodec> dictionaryCodecs = zstdDictionaries.orElse(List.of()).stream()
+                .<PayloadCodec>map(dictionary -> new ZstdPayloadCodec(zstdLevel, read(dictionary)))
+                .toList();
+        this.writer = switch (codec) {
+            case IdentityPayloadCodec.TAG -> new IdentityPayloadCodec();
+            case GzipPayloadCodec.TAG -> new GzipPayloadCodec();
+            case ZstdPayloadCodec.TAG -> dictionaryCodecs.isEmpty()
+                    ? new ZstdPayloadCodec(zstdLevel) : dictionaryCodecs.getFirst();
+            default -> throw new IllegalStateException("Unknown webhook payload codec: " + codec);
+        };
+        register(new IdentityPayloadCodec());
+        register(new GzipPayloadCodec());
+        register(new ZstdPayloadCodec(zstdLevel));
+        dictionaryCodecs.forEach(this::register);
+        register(writer);
+    }
+
+    /**
+     * Codecs writing with the given codec and reading with any of the given ones.
+     *
+     * @param writer the codec to write with
+     * @param readable the codecs to read with, besides the writer
+     */
+    public WebhookPayloadCodecs(PayloadCodec writer, List<PayloadCodec> readable) {
+        this.writer = writer;
+        readable.forEach(this::register);
+        register(writer);
+    }
+
+    /**
+     * @return the codec new payloads are written with
+     */
+    public PayloadCodec writer() {
+        return writer;
+    }
+
+    /**
+     * Find the codec of a stored payload.
+     *
+     * @param tag the codec tag stored with the payload
+     * @return the codec
+     * @throws IllegalStateException if no codec is configured for the tag
+     */
+    public PayloadCodec forTag(String tag) {
+        final PayloadCodec codec = codecs.get(tag);
+        if (codec == null) {
+            throw new IllegalStateException("No webhook payload codec configured for tag: " + tag);
+        }
+        return codec;
+    }
+
+    /**
+     * Encode a payload for storage, unless it is already encoded.
+     *
+     * @param payload the payload
+     * @return the encoded payload
+     */
+    public WebhookPayload encode(WebhookPayload payload) {
+        return payload != null ? payload.encode(writer) : null;
+    }
+
+    @Named("encodedPayload")
+    public byte[] encodedPayload(WebhookPayload payload) {
+        return payload != null ? encode(payload).getEncoded() : null;
+    }
+
+    @Named("payloadCodec")
+    public String payloadCodec(WebhookPayload payload) {
+        return payload != null ? encode(payload).getCodec().tag() : null;
+    }
+
+    @Named("storedPayload")
+    public WebhookPayload storedPayload(WebhookEventEntity entity) {
+        return entity.getPayload() != null
+                ? WebhookPayload.stored(forTag(entity.getPayloadCodec()), entity.getPayload())
+                : null;
+    }
+
+    private void register(PayloadCodec codec) {
+        codecs.put(codec.tag(), codec);
+    }
+
+    private static byte[] read(Path dictionary) {
+        try {
+            return Files.readAllBytes(dictionary);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read webhook payload dictionary " + dictionary, e);
+        }
+    }
+}
@@ -3,6 +3,8 @@ package ao.co.oportunidade.webhook.health;
 
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jboss.logging.Logger;
@@ -12,6 +14,7 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.concurrent.atomic.AtomicInteger;
 
+@Startup
 @ApplicationScoped
 public class MicrometerHealthService{
 
@@ -27,7 +30,8 @@ public class MicrometerHealthService{
     private final AtomicInteger applicationHealthStatus = new AtomicInteger(1);
     private final AtomicInteger webhookHealthStatus = new AtomicInteger(1);
 
-    public void init() {
+    @PostConstruct
+    void init() {
         // Database Health Gauge
         Gauge.builder("health.database", databaseHealthStatus, AtomicInteger::get)
                 .description("Database health status (1=UP, 0=DOWN)")
@@ -0,0 +1,121 @@
+package ao.co.oportunidade.webhook.health;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency and outcome metrics of the webhook lifecycle.
+ * <p>
+ * Every stage is timed by the {@code webhook.stage.duration} timer, tagged with the stage and
+ * its outcome and published with p50/p95/p99 and a percentile histogram. Events reaching a
+ * final outcome are counted by {@code webhook.events}.
+ */
+@ApplicationScoped
+public class WebhookMetrics {
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_ERROR = "error";
+
+    /**
+     * Stages of the webhook lifecycle, from receipt to the Odoo call.
+     */
+    public enum Stage {
+        RECEIVE("receive"),
+        IDEMPOTENCY_CHECK("idempotency_check"),
+        EVENT_INSERT("event_insert"),
+        QUEUE_WAIT("queue_wait"),
+        PROCESS("process"),
+        ODOO_CALL("odoo_call");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * Outcomes an event is counted under. CLAIM_LOST counts events processed after another
+     * claim took them over, e.g. on an expired lease, so their result was not recorded.
+     */
+    public enum Outcome {
+        RECEIVED, DUPLICATE, REJECTED, PROCESSED, FAILED, DEAD_LETTER, CLAIM_LOST
+    }
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<Outcome, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Start timing a stage.
+     *
+     * @return the running sample
+     */
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Record a stage timed from {@link #start()}.
+     *
+     * @param sample the running sample
+     * @param stage the stage
+     * @param outcome the stage outcome
+     */
+    public void stop(Timer.Sample sample, Stage stage, String outcome) {
+        sample.stop(timer(stage, outcome, null));
+    }
+
+    /**
+     * Record the processing of one payment status branch.
+     *
+     * @param sample the running sample
+     * @param status the payment status the webhook was routed by
+     * @param outcome the stage outcome
+     */
+    public void stopProcess(Timer.Sample sample, String status, String outcome) {
+        sample.stop(timer(Stage.PROCESS, outcome, status));
+    }
+
+    /**
+     * Record a stage whose duration was measured elsewhere.
+     *
+     * @param stage the stage
+     * @param duration the duration
+     */
+    public void record(Stage stage, Duration duration) {
+        timer(stage, OUTCOME_SUCCESS, null).record(duration);
+    }
+
+    /**
+     * Count an event reaching an outcome.
+     *
+     * @param outcome the outcome
+     */
+    public void count(Outcome outcome) {
+        counters.computeIfAbsent(outcome, key -> Counter.builder("webhook.events")
+                .description("Webhook events by outcome")
+                .tag("outcome", key.name().toLowerCase())
+                .register(registry)).increment();
+    }
+
+    private Timer timer(Stage stage, String outcome, String status) {
+        return timers.computeIfAbsent(stage.tag + '|' + outcome + '|' + status, key -> Timer.builder("webhook.stage.duration")
+                .description("Duration of a webhook lifecycle stage")
+                .tag("stage", stage.tag)
+                .tag("outcome", outcome)
+                .tag("status", status != null ? status : "none")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+}
@@ -2,15 +2,32 @@ package ao.co.oportunidade.webhook.resource;
 
 import ao.co.oportunidade.webhook.WebhookEvent;
 import ao.co.oportunidade.webhook.dto.AppyPayWebhookPayload;
+import ao.co.oportunidade.webhook.dto.WebhookBatchItem;
 import ao.co.oportunidade.webhook.dto.WebhookResponse;
+import ao.co.oportunidade.webhook.health.WebhookMetrics;
+import ao.co.oportunidade.webhook.service.ReactiveWebhookIngestService;
 import ao.co.oportunidade.webhook.service.WebhookEventServiceFacade;
-import io.smallrye.reactive.messaging.annotations.Channel;
-import io.smallrye.reactive.messaging.annotations.Emitter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
+import solutions.envision.resource.Resource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * REST Resource for AppyPay webhook endpoint.
@@ -28,51 +45,185 @@ public class AppyPayWebhookResource {
     WebhookEventServiceFacade webhookEventService;
 
     @Inject
-    @Channel("webhook-events-out")
-    Emitter<AppyPayWebhookPayload> webhookEmitter;
+    ObjectMapper objectMapper;
+
+    @Inject
+    ReactiveWebhookIngestService reactiveIngestService;
+
+    @Inject
+    WebhookMetrics metrics;
+
+    @ConfigProperty(name = "webhook.ingest.max-batch-size", defaultValue = "5000")
+    int maxBatchSize;
 
     /**
      * Webhook endpoint for receiving AppyPay payment notifications.
      * Responds immediately with 200 OK and processes asynchronously.
+     * The body is read once as raw bytes: it is parsed into the typed payload
+     * and stored verbatim, so it is never serialized again.
+     * With {@code webhook.ingest.reactive} the event is stored without leaving the event loop,
+     * otherwise the blocking path runs on a worker thread.
      *
-     * @param payload the webhook payload from AppyPay
+     * @param body the raw webhook request body from AppyPay
      * @return webhook response
      */
     @POST
-    public Response receiveWebhook(AppyPayWebhookPayload payload) {
+    public Uni<Response> receiveWebhook(byte[] body) {
+        final Timer.Sample sample = metrics.start();
+        final Uni<Response> response = reactiveIngestService.isEnabled()
+                ? receiveReactive(body)
+                : Uni.createFrom().item(() -> receive(body)).runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+        return response.invoke(result -> metrics.stop(sample, WebhookMetrics.Stage.RECEIVE,
+                result.getStatus() < 400 ? WebhookMetrics.OUTCOME_SUCCESS : WebhookMetrics.OUTCOME_ERROR));
+    }
+
+    private Response receive(byte[] body) {
+        final AppyPayWebhookPayload payload = parse(body);
+        if (payload == null) {
+            return malformed();
+        }
         final String transactionId = payload.getId();
-        final String merchantTxId = payload.getMerchantTransactionId();
+        try {
+            if (isAlreadyProcessed(transactionId)) {
+                return duplicate(transactionId);
+            }
 
-        LOG.infof("Received webhook for transaction: %s, merchant: %s, status: %s",
-                transactionId, merchantTxId, payload.getStatus());
+            // Create webhook event record and its outbox entry, unless it already exists
+            final Timer.Sample eventInsert = metrics.start();
+            final Optional<WebhookEvent> event = webhookEventService.createWebhookEvent(
+                    payload, new String(body, StandardCharsets.UTF_8));
+            metrics.stop(eventInsert, WebhookMetrics.Stage.EVENT_INSERT, WebhookMetrics.OUTCOME_SUCCESS);
+            return created(transactionId, event.map(WebhookEvent::getId));
 
+        } catch (Exception e) {
+            return failed(transactionId, e);
+        }
+    }
+
+    private Uni<Response> receiveReactive(byte[] body) {
+        final AppyPayWebhookPayload payload = parse(body);
+        if (payload == null) {
+            return Uni.createFrom().item(malformed());
+        }
+        final String transactionId = payload.getId();
+        if (isAlreadyProcessed(transactionId)) {
+            return Uni.createFrom().item(duplicate(transactionId));
+        }
+        final Timer.Sample eventInsert = metrics.start();
+        return reactiveIngestService.createWebhookEvent(payload, new String(body, StandardCharsets.UTF_8))
+                .map(eventId -> {
+                    metrics.stop(eventInsert, WebhookMetrics.Stage.EVENT_INSERT, WebhookMetrics.OUTCOME_SUCCESS);
+                    return created(transactionId, eventId);
+                })
+                .onFailure().recoverWithItem(e -> failed(transactionId, e));
+    }
+
+    private AppyPayWebhookPayload parse(byte[] body) {
+        final AppyPayWebhookPayload payload;
         try {
-            // Idempotency check
-            if (webhookEventService.isAlreadyProcessed(transactionId)) {
-                LOG.infof("Webhook already processed (idempotent): %s", transactionId);
-                return Response.ok(WebhookResponse.builder()
-                        .status("already_processed")
-                        .message("Webhook already processed")
-                        .eventId(transactionId)
-                        .build())
-                        .build();
-            }
+            payload = objectMapper.readValue(body, AppyPayWebhookPayload.class);
+        } catch (IOException e) {
+            LOG.warnf("Rejected malformed webhook payload: %s", e.getMessage());
+            metrics.count(WebhookMetrics.Outcome.REJECTED);
+            return null;
+        }
+        LOG.infof("Received webhook for transaction: %s, merchant: %s, status: %s",
+                payload.getId(), payload.getMerchantTransactionId(), payload.getStatus());
+        return payload;
+    }
+
+    /**
+     * Idempotency check, served from the cache; unknown redeliveries are detected on insert.
+     */
+    private boolean isAlreadyProcessed(String transactionId) {
+        final Timer.Sample idempotencyCheck = metrics.start();
+        final boolean alreadyProcessed = webhookEventService.isAlreadyProcessed(transactionId);
+        metrics.stop(idempotencyCheck, WebhookMetrics.Stage.IDEMPOTENCY_CHECK, WebhookMetrics.OUTCOME_SUCCESS);
+        return alreadyProcessed;
+    }
 
-            // Create webhook event record
-            final WebhookEvent event = webhookEventService.createWebhookEvent(payload);
+    private Response created(String transactionId, Optional<UUID> eventId) {
+        if (eventId.isEmpty()) {
+            return duplicate(transactionId);
+        }
+        metrics.count(WebhookMetrics.Outcome.RECEIVED);
+        LOG.infof("Webhook queued for processing: %s", transactionId);
 
-            // Send to async processing queue
-            webhookEmitter.send(payload);
+        // Return immediate response (within 30 seconds as required)
+        return Response.ok(WebhookResponse.success(eventId.get().toString())).build();
+    }
 
-            LOG.infof("Webhook queued for processing: %s", transactionId);
+    private Response duplicate(String transactionId) {
+        LOG.infof("Webhook already processed (idempotent): %s", transactionId);
+        metrics.count(WebhookMetrics.Outcome.DUPLICATE);
+        return Response.ok(WebhookResponse.alreadyProcessed(transactionId)).build();
+    }
 
-            // Return immediate response (within 30 seconds as required)
-            return Response.ok(WebhookResponse.success(event.getId().toString())).build();
+    private static Response malformed() {
+        return Response.status(Response.Status.BAD_REQUEST)
+                .entity(WebhookResponse.error("Malformed webhook payload"))
+                .build();
+    }
 
+    private static Response failed(String transactionId, Throwable e) {
+        LOG.errorf(e, "Error receiving webhook for transaction: %s", transactionId);
+        return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(WebhookResponse.error("Failed to process webhook: " + e.getMessage()))
+                .build();
+    }
+
+    /**
+     * Batch endpoint for AppyPay bulk notifications, reconciliation jobs and partner resends.
+     * Accepts a JSON array or an NDJSON stream of payloads and stores them in one transaction:
+     * known transaction IDs are found with one query, new events are inserted in JDBC batches
+     * and queued together. Each item is stored as its compact JSON rather than the original bytes.
+     *
+     * @param body the JSON array or NDJSON stream of webhook payloads
+     * @return the result of every item, in request order
+     */
+    @POST
+    @Path("/batch")
+    @Consumes({MediaType.APPLICATION_JSON, Resource.NDJSON})
+    public Response receiveBatch(byte[] body) {
+        final List<WebhookResponse> results = new ArrayList<>();
+        final List<WebhookBatchItem> items = new ArrayList<>();
+        final List<Integer> positions = new ArrayList<>();
+        try (MappingIterator<JsonNode> nodes = objectMapper.readerFor(JsonNode.class).readValues(body)) {
+            while (nodes.hasNextValue()) {
+                if (results.size() == maxBatchSize) {
+                    return Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE)
+                            .entity(WebhookResponse.error("Batch exceeds " + maxBatchSize + " webhooks"))
+                            .build();
+                }
+                final JsonNode node = nodes.nextValue();
+                try {
+                    items.add(new WebhookBatchItem(
+                            objectMapper.treeToValue(node, AppyPayWebhookPayload.class), node.toString()));
+                    positions.add(results.size());
+                    results.add(null);
+                } catch (JsonProcessingException e) {
+                    metrics.count(WebhookMetrics.Outcome.REJECTED);
+                    results.add(WebhookResponse.error("Malformed webhook payload"));
+                }
+            }
+        } catch (IOException e) {
+            LOG.warnf("Rejected malformed webhook batch: %s", e.getMessage());
+            metrics.count(WebhookMetrics.Outcome.REJECTED);
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(WebhookResponse.error("Malformed webhook batch"))
+                    .build();
+        }
+
+        try {
+            final List<WebhookResponse> created = webhookEventService.createWebhookEvents(items);
+            for (int i = 0; i < created.size(); i++) {
+                results.set(positions.get(i), created.get(i));
+            }
+            return Response.ok(results).build();
         } catch (Exception e) {
-            LOG.errorf(e, "Error receiving webhook for transaction: %s", transactionId);
+            LOG.errorf(e, "Error receiving webhook batch of %d items", results.size());
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(WebhookResponse.error("Failed to process webhook: " + e.getMessage()))
+                    .entity(WebhookResponse.error("Failed to process webhook batch: " + e.getMessage()))
                     .build();
         }
     }
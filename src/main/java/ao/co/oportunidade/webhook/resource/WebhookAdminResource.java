@@ -0,0 +1,93 @@
+package ao.co.oportunidade.webhook.resource;
+
+import ao.co.oportunidade.webhook.WebhookEvent;
+import ao.co.oportunidade.webhook.WebhookEventService;
+import ao.co.oportunidade.webhook.dto.WebhookEventDTO;
+import ao.co.oportunidade.webhook.dto.WebhookReplayRequest;
+import ao.co.oportunidade.webhook.service.WebhookReplayService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import solutions.envision.resource.ServiceResource;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static solutions.envision.resource.Resource.API_VERSION_PATH;
+
+/**
+ * Admin REST Resource for inspecting and replaying failed and dead-lettered webhook events.
+ */
+@RunOnVirtualThread
+@Path(API_VERSION_PATH + "/admin/webhooks")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class WebhookAdminResource extends ServiceResource<WebhookEventDTO, WebhookEvent, WebhookEventService> {
+
+    @Inject
+    WebhookReplayService replayService;
+
+    /**
+     * Get one page of failed and dead-lettered webhook events in creation order.
+     *
+     * @param after cursor from the {@value #NEXT_CURSOR_HEADER} header of the previous page
+     * @param limit the page size
+     * @param status FAILED or DEAD_LETTER, both when omitted
+     * @param webhookType optional webhook type filter
+     * @param from inclusive lower bound of the creation date
+     * @param to exclusive upper bound of the creation date
+     * @return page of webhook event DTOs
+     */
+    @GET
+    public Response getFailedEvents(@QueryParam("after") String after,
+                                    @QueryParam("limit") @DefaultValue(DEFAULT_PAGE_SIZE) int limit,
+                                    @QueryParam("status") WebhookEvent.ProcessingStatus status,
+                                    @QueryParam("type") String webhookType,
+                                    @QueryParam("from") Instant from,
+                                    @QueryParam("to") Instant to) {
+        if (status != null && !WebhookReplayService.REPLAYABLE.contains(status)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("status must be one of " + WebhookReplayService.REPLAYABLE)
+                    .build();
+        }
+        return page(after, limit, WebhookReplayService.filters(status, webhookType), from, to);
+    }
+
+    /**
+     * Replay the listed events, or all events matching the request filters, at a bounded rate.
+     *
+     * @param request the replay request
+     * @return 202 with the job status to poll
+     */
+    @POST
+    @Path("/replay")
+    public Response replay(WebhookReplayRequest request) {
+        if (request.getStatus() != null && !WebhookReplayService.REPLAYABLE.contains(request.getStatus())) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("status must be one of " + WebhookReplayService.REPLAYABLE)
+                    .build();
+        }
+        if (request.getRatePerSecond() != null && request.getRatePerSecond() <= 0) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("ratePerSecond must be positive")
+                    .build();
+        }
+        return Response.accepted(replayService.start(request)).build();
+    }
+
+    /**
+     * Get the progress of a replay job.
+     *
+     * @param jobId the job ID returned when the replay was started
+     * @return job status or 404 if not found
+     */
+    @GET
+    @Path("/replay/{jobId}")
+    public Response getReplayStatus(@PathParam("jobId") UUID jobId) {
+        return replayService.getStatus(jobId)
+                .map(status -> Response.ok(status).build())
+                .orElse(Response.status(Response.Status.NOT_FOUND).build());
+    }
+}
@@ -1,5 +1,6 @@
 package ao.co.oportunidade.webhook.resource;
 
+import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
@@ -18,6 +19,10 @@ public class WebhookExceptionHandler implements ExceptionMapper<Exception> {
 
     @Override
     public Response toResponse(Exception exception) {
+        // Keep the status of deliberate HTTP errors such as 404
+        if (exception instanceof WebApplicationException webApplicationException) {
+            return webApplicationException.getResponse();
+        }
         LOG.errorf(exception, "Unhandled exception in webhook processing");
 
         Map<String, Object> errorResponse = new HashMap<>();
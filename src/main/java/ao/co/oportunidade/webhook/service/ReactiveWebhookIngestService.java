@@ -0,0 +1,103 @@
+package ao.co.oportunidade.webhook.service;
+
+import ao.co.oportunidade.webhook.WebhookEvent;
+import ao.co.oportunidade.webhook.WebhookPayload;
+import ao.co.oportunidade.webhook.dto.AppyPayWebhookPayload;
+import ao.co.oportunidade.webhook.entity.WebhookPayloadCodecs;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Non-blocking variant of the webhook ingest, enabled with {@code webhook.ingest.reactive}.
+ * Inserts the webhook event and its outbox row on the event loop through the reactive
+ * PostgreSQL client, in one transaction, with the same duplicate detection on the unique
+ * AppyPay transaction ID as {@link WebhookEventServiceFacade#createWebhookEvent}.
+ * Payloads are encoded with the same codec as the blocking path.
+ */
+@ApplicationScoped
+public class ReactiveWebhookIngestService {
+
+    private static final Logger LOG = Logger.getLogger(ReactiveWebhookIngestService.class);
+
+    static final String INSERT_EVENT = "INSERT INTO webhook_events (id, appypayTransactionId, "
+            + "merchant_transaction_id, webhook_type, processingStatus, payload, payload_codec, received_at, retry_count, "
+            + "created_date, updated_date, version) VALUES ($1, $2, $3, $4, $5, $6, $7, $8, 0, $8, $8, 0) "
+            + "ON CONFLICT (appypayTransactionId) DO NOTHING";
+
+    static final String INSERT_OUTBOX = "INSERT INTO webhook_outbox (id, webhook_event_id, appypayTransactionId, "
+            + "merchantTransactionId, attempts, created_date) VALUES ($1, $2, $3, $4, 0, $5)";
+
+    @Inject
+    Instance<Pool> pool;
+
+    @Inject
+    WebhookIdempotencyCache idempotencyCache;
+
+    @Inject
+    WebhookPayloadCodecs payloadCodecs;
+
+    @ConfigProperty(name = "webhook.ingest.reactive", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "quarkus.datasource.reactive.url")
+    Optional<String> reactiveUrl;
+
+    void checkDatasource(@Observes StartupEvent event) {
+        if (enabled && (!pool.isResolvable() || reactiveUrl.isEmpty())) {
+            throw new IllegalStateException(
+                    "webhook.ingest.reactive requires the reactive PostgreSQL datasource and quarkus.datasource.reactive.url");
+        }
+    }
+
+    /**
+     * @return whether webhooks are ingested through this service instead of the blocking facade
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Create a new webhook event record and queue it in the outbox within the same
+     * transaction, unless the AppyPay transaction ID already exists.
+     *
+     * @param payload the webhook payload
+     * @param rawPayload the raw JSON request body the payload was parsed from
+     * @return the ID of the created webhook event, or empty if it is a duplicate
+     */
+    public Uni<Optional<UUID>> createWebhookEvent(AppyPayWebhookPayload payload, String rawPayload) {
+        final UUID eventId = UUID.randomUUID();
+        final OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        final WebhookPayload stored = payloadCodecs.encode(WebhookPayload.of(rawPayload));
+        return pool.get().withTransaction(connection -> connection.preparedQuery(INSERT_EVENT)
+                        .execute(Tuple.wrap(Arrays.asList(eventId, payload.getId(), payload.getMerchantTransactionId(),
+                                payload.getType(), WebhookEvent.ProcessingStatus.RECEIVED.name(),
+                                Buffer.buffer(stored.getEncoded()), stored.getCodec().tag(), now)))
+                        .flatMap(inserted -> inserted.rowCount() == 0
+                                ? Uni.createFrom().item(Optional.<UUID>empty())
+                                : connection.preparedQuery(INSERT_OUTBOX)
+                                        .execute(Tuple.wrap(Arrays.asList(UUID.randomUUID(), eventId, payload.getId(),
+                                                payload.getMerchantTransactionId(), now)))
+                                        .replaceWith(Optional.of(eventId))))
+                .invoke(created -> created.ifPresentOrElse(
+                        id -> {
+                            idempotencyCache.put(payload.getId(), WebhookEvent.ProcessingStatus.RECEIVED);
+                            LOG.infof("Created webhook event: %s for transaction: %s", id, payload.getId());
+                        },
+                        () -> LOG.infof("Webhook event already exists for transaction: %s", payload.getId())));
+    }
+}
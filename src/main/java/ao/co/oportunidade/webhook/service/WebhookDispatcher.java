@@ -0,0 +1,113 @@
+package ao.co.oportunidade.webhook.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.Startup;
+import io.quarkus.virtual.threads.VirtualThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import solutions.envision.service.SerialExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Partitions webhook processing into {@code webhook.processing.lanes} lanes keyed by
+ * merchant transaction ID. Events of the same order always land in the same lane and
+ * run one after another, while different lanes run in parallel.
+ * <p>
+ * At most {@code webhook.processing.max-pending} events are queued or running across all
+ * lanes; dispatching blocks beyond that. The depth of each lane is published as the
+ * {@code webhook.processing.lane.depth} gauge, the totals as {@code webhook.processing.pending}
+ * and {@code webhook.processing.in-flight}.
+ */
+@Startup
+@ApplicationScoped
+public class WebhookDispatcher {
+
+    @Inject
+    @VirtualThreads
+    ExecutorService processingExecutor;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "webhook.processing.lanes", defaultValue = "16")
+    int laneCount;
+
+    @ConfigProperty(name = "webhook.processing.max-pending", defaultValue = "500")
+    int maxPending;
+
+    private SerialExecutor[] lanes;
+    private Semaphore pending;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @PostConstruct
+    void init() {
+        pending = new Semaphore(maxPending);
+        lanes = new SerialExecutor[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            final SerialExecutor lane = new SerialExecutor(processingExecutor,
+                    task -> ((LaneTask) task).reject());
+            lanes[i] = lane;
+            Gauge.builder("webhook.processing.lane.depth", lane, SerialExecutor::getQueueDepth)
+                    .description("Webhook events waiting in a processing lane")
+                    .tag("lane", String.valueOf(i))
+                    .register(registry);
+        }
+        Gauge.builder("webhook.processing.pending", pending, permits -> maxPending - permits.availablePermits())
+                .description("Webhook events queued or running across all lanes")
+                .register(registry);
+        Gauge.builder("webhook.processing.in-flight", inFlight, AtomicInteger::get)
+                .description("Webhook events currently being processed")
+                .register(registry);
+    }
+
+    /**
+     * Queue a task in the lane of its key, waiting while too many events are pending.
+     * If the executor rejects the task, now or once the tasks ahead of it in the lane have run,
+     * its pending slot is released and {@code onRejected} runs instead of the task.
+     *
+     * @param key the ordering key, the merchant transaction ID
+     * @param task the task to run
+     * @param onRejected run instead of the task if the executor rejected it
+     */
+    public void dispatch(String key, Runnable task, Runnable onRejected) {
+        pending.acquireUninterruptibly();
+        lanes[laneOf(key)].execute(new LaneTask(task, onRejected));
+    }
+
+    int laneOf(String key) {
+        return Math.floorMod(key.hashCode(), lanes.length);
+    }
+
+    private final class LaneTask implements Runnable {
+
+        private final Runnable task;
+        private final Runnable onRejected;
+
+        private LaneTask(Runnable task, Runnable onRejected) {
+            this.task = task;
+            this.onRejected = onRejected;
+        }
+
+        @Override
+        public void run() {
+            inFlight.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                inFlight.decrementAndGet();
+                pending.release();
+            }
+        }
+
+        void reject() {
+            pending.release();
+            onRejected.run();
+        }
+    }
+}
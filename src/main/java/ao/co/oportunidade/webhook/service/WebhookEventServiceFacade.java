@@ -2,16 +2,31 @@ package ao.co.oportunidade.webhook.service;
 
 import ao.co.oportunidade.webhook.WebhookEvent;
 import ao.co.oportunidade.webhook.WebhookEventService;
+import ao.co.oportunidade.webhook.WebhookPayload;
 import ao.co.oportunidade.webhook.dto.AppyPayWebhookPayload;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import ao.co.oportunidade.webhook.dto.WebhookBatchItem;
+import ao.co.oportunidade.webhook.dto.WebhookResponse;
+import ao.co.oportunidade.webhook.health.WebhookMetrics;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
+import solutions.envision.entity.BatchSaveResult;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing webhook events and ensuring idempotency.
@@ -22,113 +37,315 @@ public class WebhookEventServiceFacade {
 
     private static final Logger LOG = Logger.getLogger(WebhookEventServiceFacade.class);
 
+    private static final Set<WebhookEvent.ProcessingStatus> CLAIMABLE = EnumSet.of(
+            WebhookEvent.ProcessingStatus.RECEIVED,
+            WebhookEvent.ProcessingStatus.FAILED);
+
+    private static final Set<WebhookEvent.ProcessingStatus> REPLAY_CLAIMABLE = EnumSet.of(
+            WebhookEvent.ProcessingStatus.RECEIVED,
+            WebhookEvent.ProcessingStatus.FAILED,
+            WebhookEvent.ProcessingStatus.DEAD_LETTER);
+
     @Inject
     WebhookEventService webhookEventService;
 
     @Inject
-    ObjectMapper objectMapper;
+    WebhookIdempotencyCache idempotencyCache;
+
+    @Inject
+    WebhookOutboxService outboxService;
+
+    @Inject
+    WebhookMetrics metrics;
+
+    @ConfigProperty(name = "webhook.max-retry-count", defaultValue = "3")
+    int maxRetryCount;
+
+    @ConfigProperty(name = "webhook.retry-delay-seconds", defaultValue = "60")
+    long retryDelaySeconds;
+
+    @ConfigProperty(name = "webhook.retry.max-backoff", defaultValue = "1H")
+    Duration maxBackoff;
+
+    @ConfigProperty(name = "webhook.processing.lease", defaultValue = "10M")
+    Duration processingLease;
 
     /**
-     * Check if a webhook has already been processed (idempotency check).
+     * Check if a webhook is known to be processed (idempotency check) from the idempotency
+     * cache alone. A miss is settled by {@link #createWebhookEvent}, which detects duplicates
+     * while inserting, so the database is not queried here.
      *
      * @param appypayTransactionId the AppyPay transaction ID
-     * @return true if already processed, false otherwise
+     * @return true if cached as processed, false otherwise
      */
     public boolean isAlreadyProcessed(String appypayTransactionId) {
-        return webhookEventService.isAlreadyProcessed(appypayTransactionId);
+        return idempotencyCache.get(appypayTransactionId)
+                .map(WebhookEvent.ProcessingStatus::isHandled)
+                .orElse(false);
     }
 
     /**
-     * Create a new webhook event record.
+     * Find webhook event by AppyPay transaction ID.
+     *
+     * @param appypayTransactionId the AppyPay transaction ID
+     * @return Optional containing the webhook event if found
+     */
+    @Transactional
+    public Optional<WebhookEvent> findByAppyPayTransactionId(String appypayTransactionId) {
+        return webhookEventService.findByAppyPayTransactionId(appypayTransactionId);
+    }
+
+    /**
+     * Create a new webhook event record and queue it in the outbox
+     * within the same transaction. The raw request body is stored as received,
+     * preserving the exact bytes AppyPay sent. The insert is skipped when the
+     * AppyPay transaction ID already exists, so concurrent redeliveries resolve
+     * to one event without a constraint violation.
      *
      * @param payload the webhook payload
-     * @return the created webhook event
+     * @param rawPayload the raw JSON request body the payload was parsed from
+     * @return the created webhook event, or empty if it is a duplicate
      */
     @Transactional
-    public WebhookEvent createWebhookEvent(AppyPayWebhookPayload payload) {
-        try {
-            String payloadJson = objectMapper.writeValueAsString(payload);
-            
-            WebhookEvent event = new WebhookEvent();
-            event.setId(UUID.randomUUID());
-            event.setAppypayTransactionId(payload.getId());
-            event.setMerchantTransactionId(payload.getMerchantTransactionId());
-            event.setWebhookType(payload.getType());
-            event.setProcessingStatus(WebhookEvent.ProcessingStatus.RECEIVED);
-            event.setPayload(payloadJson);
-            event.setReceivedAt(Instant.now());
-            event.setRetryCount(0);
-            event.setCreatedDate(Instant.now());
-            event.setUpdatedDate(Instant.now());
-            
-            webhookEventService.saveDomain(event);
-            LOG.infof("Created webhook event: %s for transaction: %s", 
-                    event.getId(), payload.getId());
-            
-            return event;
-        } catch (JsonProcessingException e) {
-            LOG.errorf(e, "Failed to serialize webhook payload: %s", payload.getId());
-            throw new RuntimeException("Failed to create webhook event", e);
+    public Optional<WebhookEvent> createWebhookEvent(AppyPayWebhookPayload payload, String rawPayload) {
+        final WebhookEvent event = newEvent(payload, rawPayload);
+        if (!webhookEventService.insertIfAbsent(event)) {
+            LOG.infof("Webhook event already exists for transaction: %s", payload.getId());
+            return Optional.empty();
+        }
+        outboxService.enqueue(event);
+        idempotencyCache.putAfterCommit(event.getAppypayTransactionId(), event.getProcessingStatus());
+        LOG.infof("Created webhook event: %s for transaction: %s",
+                event.getId(), payload.getId());
+
+        return Optional.of(event);
+    }
+
+    /**
+     * Create the webhook events of a batch and queue them in the outbox, in one transaction.
+     * Known transaction IDs are looked up in a single query and the other events are inserted
+     * with the same conflict-safe insert as {@link #createWebhookEvent}, so a concurrent
+     * redelivery of one of them is reported as a duplicate instead of failing the batch.
+     * A transaction ID repeated within the batch is only created once.
+     *
+     * @param items the notifications of the batch
+     * @return the result of every item, in the order of the items
+     */
+    @Transactional
+    public List<WebhookResponse> createWebhookEvents(List<WebhookBatchItem> items) {
+        final Map<String, WebhookEvent.ProcessingStatus> known = new HashMap<>();
+        webhookEventService.findByAppyPayTransactionIds(items.stream()
+                        .map(item -> item.payload().getId())
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .forEach(event -> known.put(event.getAppypayTransactionId(), event.getProcessingStatus()));
+
+        final List<WebhookResponse> results = new ArrayList<>(items.size());
+        final Map<UUID, Integer> positions = new HashMap<>();
+        final List<WebhookEvent> created = new ArrayList<>();
+        for (WebhookBatchItem item : items) {
+            final String transactionId = item.payload().getId();
+            final WebhookEvent.ProcessingStatus status = transactionId == null ? null : known.get(transactionId);
+            if (transactionId == null) {
+                results.add(WebhookResponse.error("Missing transaction ID"));
+                metrics.count(WebhookMetrics.Outcome.REJECTED);
+            } else if (status != null) {
+                results.add(status.isHandled()
+                        ? WebhookResponse.alreadyProcessed(transactionId)
+                        : WebhookResponse.alreadyReceived(transactionId));
+                metrics.count(WebhookMetrics.Outcome.DUPLICATE);
+            } else {
+                final WebhookEvent event = newEvent(item.payload(), item.rawPayload());
+                known.put(transactionId, event.getProcessingStatus());
+                positions.put(event.getId(), results.size());
+                created.add(event);
+                results.add(WebhookResponse.success(event.getId().toString()));
+            }
+        }
+
+        final List<WebhookEvent> persisted = new ArrayList<>(created.size());
+        for (BatchSaveResult.Row<WebhookEvent> row : webhookEventService.insertAllIfAbsent(created).getRows()) {
+            final int position = positions.get(row.domain().getId());
+            switch (row.outcome()) {
+                case REJECTED -> {
+                    results.set(position, WebhookResponse.error("Failed to store webhook: " + row.error()));
+                    metrics.count(WebhookMetrics.Outcome.REJECTED);
+                }
+                case SKIPPED -> {
+                    results.set(position, WebhookResponse.alreadyReceived(row.domain().getAppypayTransactionId()));
+                    metrics.count(WebhookMetrics.Outcome.DUPLICATE);
+                }
+                default -> {
+                    persisted.add(row.domain());
+                    idempotencyCache.putAfterCommit(row.domain().getAppypayTransactionId(),
+                            row.domain().getProcessingStatus());
+                    metrics.count(WebhookMetrics.Outcome.RECEIVED);
+                }
+            }
         }
+        outboxService.enqueueAll(persisted);
+        LOG.infof("Created %d webhook events from a batch of %d", persisted.size(), items.size());
+        return results;
+    }
+
+    private static WebhookEvent newEvent(AppyPayWebhookPayload payload, String rawPayload) {
+        final Instant now = Instant.now();
+        final WebhookEvent event = new WebhookEvent();
+        event.setId(UUID.randomUUID());
+        event.setAppypayTransactionId(payload.getId());
+        event.setMerchantTransactionId(payload.getMerchantTransactionId());
+        event.setWebhookType(payload.getType());
+        event.setProcessingStatus(WebhookEvent.ProcessingStatus.RECEIVED);
+        event.setPayload(WebhookPayload.of(rawPayload));
+        event.setReceivedAt(now);
+        event.setRetryCount(0);
+        event.setCreatedDate(now);
+        event.setUpdatedDate(now);
+        return event;
+    }
+
+    /**
+     * Claim a webhook event for processing, from RECEIVED or FAILED, in one statement.
+     * A claim left in PROCESSING for longer than {@code webhook.processing.lease} is taken over,
+     * so events of a crashed instance are not stuck. Only one replica can win the claim.
+     * Dead-lettered events are only claimed by {@link #markAsProcessingForReplay}.
+     *
+     * @param eventId the webhook event ID
+     * @return true if this call claimed the event
+     */
+    @Transactional
+    public boolean markAsProcessing(String eventId) {
+        return claim(eventId, CLAIMABLE);
     }
 
     /**
-     * Update webhook event status to processing.
+     * Claim a webhook event for an explicit replay, from RECEIVED, FAILED or DEAD_LETTER.
      *
      * @param eventId the webhook event ID
+     * @return true if this call claimed the event
      */
     @Transactional
-    public void markAsProcessing(String eventId) {
-        webhookEventService.findByAppyPayTransactionId(eventId).ifPresent(event -> {
-            event.setProcessingStatus(WebhookEvent.ProcessingStatus.PROCESSING);
-            webhookEventService.updateEvent(event);
+    public boolean markAsProcessingForReplay(String eventId) {
+        return claim(eventId, REPLAY_CLAIMABLE);
+    }
+
+    private boolean claim(String eventId, Set<WebhookEvent.ProcessingStatus> from) {
+        final boolean claimed = webhookEventService.claimForProcessing(eventId, from,
+                Instant.now().minus(processingLease));
+        if (claimed) {
+            idempotencyCache.putAfterCommit(eventId, WebhookEvent.ProcessingStatus.PROCESSING);
             LOG.infof("Marked webhook event as processing: %s", eventId);
-        });
+        }
+        return claimed;
     }
 
     /**
-     * Update webhook event status to processed.
+     * Update webhook event status from processing to processed.
      *
      * @param eventId the webhook event ID
+     * @return true if the event was processing and is now processed
      */
     @Transactional
-    public void markAsProcessed(String eventId) {
-        webhookEventService.findByAppyPayTransactionId(eventId).ifPresent(event -> {
-            event.setProcessingStatus(WebhookEvent.ProcessingStatus.PROCESSED);
-            event.setProcessedAt(Instant.now());
-            webhookEventService.updateEvent(event);
+    public boolean markAsProcessed(String eventId) {
+        final boolean updated = webhookEventService.compareAndSetStatus(eventId,
+                EnumSet.of(WebhookEvent.ProcessingStatus.PROCESSING), WebhookEvent.ProcessingStatus.PROCESSED);
+        if (updated) {
+            idempotencyCache.putAfterCommit(eventId, WebhookEvent.ProcessingStatus.PROCESSED);
             LOG.infof("Marked webhook event as processed: %s", eventId);
-        });
+        }
+        return updated;
     }
 
     /**
-     * Update webhook event status to failed.
+     * Update webhook event status from processing to failed and schedule its retry with jittered
+     * exponential backoff, or move it to the dead letter queue once
+     * {@code webhook.max-retry-count} retries have failed. The update only applies while the
+     * event still has the retry count the caller read, so a failure is never counted twice.
      *
      * @param eventId the webhook event ID
+     * @param retryCount the retry count of the event when it was claimed
      * @param errorMessage the error message
+     * @return true if the event was updated
      */
     @Transactional
-    public void markAsFailed(String eventId, String errorMessage) {
-        webhookEventService.findByAppyPayTransactionId(eventId).ifPresent(event -> {
-            event.setProcessingStatus(WebhookEvent.ProcessingStatus.FAILED);
-            event.setErrorMessage(errorMessage);
-            event.setRetryCount(event.getRetryCount() + 1);
-            webhookEventService.updateEvent(event);
-            LOG.errorf("Marked webhook event as failed: %s, error: %s", eventId, errorMessage);
-        });
+    public boolean markAsFailed(String eventId, int retryCount, String errorMessage) {
+        final int attempts = retryCount + 1;
+        final boolean deadLetter = attempts > maxRetryCount;
+        final WebhookEvent.ProcessingStatus status = deadLetter
+                ? WebhookEvent.ProcessingStatus.DEAD_LETTER : WebhookEvent.ProcessingStatus.FAILED;
+        final Instant nextAttemptAt = deadLetter ? null : Instant.now().plus(backoff(attempts));
+        if (!webhookEventService.markFailed(eventId, retryCount, status, nextAttemptAt, errorMessage)) {
+            LOG.warnf("Webhook event %s was not processing with retry count %d, failure not recorded",
+                    eventId, retryCount);
+            return false;
+        }
+        if (deadLetter) {
+            metrics.count(WebhookMetrics.Outcome.DEAD_LETTER);
+            LOG.errorf("Moved webhook event to dead letter queue after %d attempts: %s, error: %s",
+                    attempts, eventId, errorMessage);
+        } else {
+            LOG.errorf("Marked webhook event as failed: %s, error: %s, retrying at %s",
+                    eventId, errorMessage, nextAttemptAt);
+        }
+        idempotencyCache.putAfterCommit(eventId, status);
+        return true;
+    }
+
+    /**
+     * Claim failed webhook events whose retry is due, and events left in PROCESSING for longer
+     * than {@code webhook.processing.lease}, and queue them in the outbox again, in one transaction.
+     * Abandoned events that already used up {@code webhook.max-retry-count} retries are
+     * dead-lettered instead.
+     *
+     * @param limit the maximum number of events
+     * @return the number of events claimed, dead-lettered ones included
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public int requeueDueRetries(int limit) {
+        final Instant now = Instant.now();
+        final List<WebhookEvent> due =
+                webhookEventService.claimDueForRetry(now, now.minus(processingLease), maxRetryCount, limit);
+        for (WebhookEvent event : due) {
+            if (event.getProcessingStatus() == WebhookEvent.ProcessingStatus.DEAD_LETTER) {
+                metrics.count(WebhookMetrics.Outcome.DEAD_LETTER);
+                idempotencyCache.putAfterCommit(event.getAppypayTransactionId(), WebhookEvent.ProcessingStatus.DEAD_LETTER);
+                LOG.errorf("Moved webhook event to dead letter queue after %d expired processing leases and failures: %s",
+                        event.getRetryCount(), event.getAppypayTransactionId());
+            } else {
+                outboxService.enqueue(event);
+            }
+        }
+        return due.size();
     }
 
     /**
      * Move webhook event to dead letter queue after max retries.
      *
      * @param eventId the webhook event ID
+     * @return true if the event was not yet processed or dead-lettered and was moved
      */
     @Transactional
-    public void moveToDeadLetter(String eventId) {
-        webhookEventService.findByAppyPayTransactionId(eventId).ifPresent(event -> {
-            event.setProcessingStatus(WebhookEvent.ProcessingStatus.DEAD_LETTER);
-            webhookEventService.updateEvent(event);
+    public boolean moveToDeadLetter(String eventId) {
+        final boolean moved = webhookEventService.compareAndSetStatus(eventId, EnumSet.of(
+                        WebhookEvent.ProcessingStatus.RECEIVED,
+                        WebhookEvent.ProcessingStatus.PROCESSING,
+                        WebhookEvent.ProcessingStatus.FAILED),
+                WebhookEvent.ProcessingStatus.DEAD_LETTER);
+        if (moved) {
+            metrics.count(WebhookMetrics.Outcome.DEAD_LETTER);
+            idempotencyCache.putAfterCommit(eventId, WebhookEvent.ProcessingStatus.DEAD_LETTER);
             LOG.errorf("Moved webhook event to dead letter queue: %s", eventId);
-        });
+        }
+        return moved;
+    }
+
+    /**
+     * Backoff doubling from {@code webhook.retry-delay-seconds} up to {@code webhook.retry.max-backoff},
+     * with a random delay between half and all of it so failed events do not retry in lockstep.
+     */
+    private Duration backoff(int retryCount) {
+        final Duration exponential = Duration.ofSeconds(retryDelaySeconds).multipliedBy(1L << Math.min(retryCount - 1, 20));
+        final long capped = Math.min(exponential.toMillis(), maxBackoff.toMillis());
+        return Duration.ofMillis(capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1));
     }
 }
@@ -0,0 +1,69 @@
+package ao.co.oportunidade.webhook.service;
+
+import ao.co.oportunidade.webhook.WebhookEvent;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import solutions.envision.service.TransactionCallbacks;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Bounded in-memory view of the last known processing status per AppyPay transaction ID.
+ * Only statuses read from or written to the database are cached, so a miss always falls
+ * back to the database. Size, TTL and hit/miss metrics are configured under
+ * {@code quarkus.cache.caffeine.webhook-idempotency}.
+ */
+@ApplicationScoped
+public class WebhookIdempotencyCache {
+
+    @Inject
+    @CacheName("webhook-idempotency")
+    Cache cache;
+
+    @Inject
+    TransactionCallbacks transactionCallbacks;
+
+    /**
+     * Get the cached processing status.
+     *
+     * @param appypayTransactionId the AppyPay transaction ID
+     * @return Optional containing the status if cached
+     */
+    public Optional<WebhookEvent.ProcessingStatus> get(String appypayTransactionId) {
+        final CompletableFuture<WebhookEvent.ProcessingStatus> status =
+                cache.as(CaffeineCache.class).getIfPresent(appypayTransactionId);
+        return status == null ? Optional.empty() : Optional.ofNullable(status.getNow(null));
+    }
+
+    /**
+     * Cache a processing status read from the database.
+     *
+     * @param appypayTransactionId the AppyPay transaction ID
+     * @param status the processing status
+     */
+    public void put(String appypayTransactionId, WebhookEvent.ProcessingStatus status) {
+        cache.as(CaffeineCache.class).put(appypayTransactionId, CompletableFuture.completedFuture(status));
+    }
+
+    /**
+     * Drop all cached statuses, e.g. after webhook events were deleted.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll().await().indefinitely();
+    }
+
+    /**
+     * Cache a processing status once the current transaction commits,
+     * or immediately when no transaction is active.
+     *
+     * @param appypayTransactionId the AppyPay transaction ID
+     * @param status the processing status being written
+     */
+    public void putAfterCommit(String appypayTransactionId, WebhookEvent.ProcessingStatus status) {
+        transactionCallbacks.afterCommit(() -> put(appypayTransactionId, status));
+    }
+}
@@ -0,0 +1,83 @@
+package ao.co.oportunidade.webhook.service;
+
+import ao.co.oportunidade.webhook.entity.WebhookOutboxEntity;
+import ao.co.oportunidade.webhook.health.WebhookMetrics;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Drains the webhook outbox in batches and hands each event to the {@link WebhookProcessor}.
+ * Rows are claimed with {@code FOR UPDATE SKIP LOCKED}, so several instances can poll
+ * the same table without dispatching an event twice.
+ * <p>
+ * Claimed rows are handed to the {@link WebhookDispatcher} in creation order, so events of the
+ * same order are processed serially. Ordering holds within one instance; across instances it
+ * relies on the outbox lease.
+ * <p>
+ * A row is completed once its event is processed, settled or its failure is recorded for retry.
+ * When another claim holds the event the row is kept, and dispatched again after its lease.
+ */
+@ApplicationScoped
+public class WebhookOutboxPoller {
+
+    private static final Logger LOG = Logger.getLogger(WebhookOutboxPoller.class);
+
+    @Inject
+    WebhookOutboxService outboxService;
+
+    @Inject
+    WebhookProcessor webhookProcessor;
+
+    @Inject
+    WebhookDispatcher dispatcher;
+
+    @Inject
+    WebhookMetrics metrics;
+
+    @ConfigProperty(name = "webhook.outbox.batch-size", defaultValue = "50")
+    int batchSize;
+
+    /**
+     * Dispatch claimable outbox rows until a batch comes back short.
+     * Blocks while too many events are pending.
+     */
+    @Scheduled(every = "${webhook.outbox.poll-interval:1s}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void poll() {
+        List<WebhookOutboxEntity> claimed;
+        do {
+            claimed = outboxService.claimBatch(batchSize);
+            claimed.forEach(this::submit);
+        } while (claimed.size() == batchSize);
+    }
+
+    private void submit(WebhookOutboxEntity entry) {
+        final String key = entry.getMerchantTransactionId() != null
+                ? entry.getMerchantTransactionId() : entry.getAppypayTransactionId();
+        dispatcher.dispatch(key, () -> dispatch(entry), () -> LOG.warnf(
+                "Processing executor rejected webhook %s, it will be retried after its lease expires",
+                entry.getAppypayTransactionId()));
+    }
+
+    private void dispatch(WebhookOutboxEntity entry) {
+        final String transactionId = entry.getAppypayTransactionId();
+        metrics.record(WebhookMetrics.Stage.QUEUE_WAIT, Duration.between(entry.getCreatedDate(), Instant.now()));
+        try {
+            if (webhookProcessor.processEvent(transactionId) == WebhookProcessor.Result.CLAIMED_ELSEWHERE) {
+                LOG.infof("Webhook %s is claimed elsewhere, leaving it in the outbox until its lease expires",
+                        transactionId);
+                return;
+            }
+        } catch (Exception e) {
+            LOG.errorf(e, "Outbox dispatch failed for webhook: %s (attempt %d)", transactionId, entry.getAttempts());
+        }
+        outboxService.complete(entry.getId());
+    }
+}
@@ -0,0 +1,86 @@
+package ao.co.oportunidade.webhook.service;
+
+import ao.co.oportunidade.webhook.WebhookEvent;
+import ao.co.oportunidade.webhook.entity.WebhookOutboxEntity;
+import ao.co.oportunidade.webhook.entity.WebhookOutboxRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Transactional operations on the webhook outbox.
+ */
+@ApplicationScoped
+public class WebhookOutboxService {
+
+    @Inject
+    WebhookOutboxRepository outboxRepository;
+
+    @ConfigProperty(name = "webhook.outbox.lease", defaultValue = "5M")
+    Duration lease;
+
+    /**
+     * Add a webhook event to the outbox. Joins the caller's transaction so the
+     * outbox row is committed together with the event.
+     *
+     * @param event the webhook event to dispatch
+     */
+    @Transactional
+    public void enqueue(WebhookEvent event) {
+        outboxRepository.persist(entryOf(event));
+    }
+
+    /**
+     * Add many webhook events to the outbox in one step. Joins the caller's transaction;
+     * the rows are written as JDBC batches of {@code repository.batch-size}.
+     *
+     * @param events the webhook events to dispatch
+     */
+    @Transactional
+    public void enqueueAll(Collection<WebhookEvent> events) {
+        outboxRepository.persist(events.stream().map(WebhookOutboxService::entryOf));
+    }
+
+    private static WebhookOutboxEntity entryOf(WebhookEvent event) {
+        final WebhookOutboxEntity entry = new WebhookOutboxEntity();
+        entry.setWebhookEventId(event.getId());
+        entry.setAppypayTransactionId(event.getAppypayTransactionId());
+        entry.setMerchantTransactionId(event.getMerchantTransactionId());
+        return entry;
+    }
+
+    /**
+     * Claim a batch of outbox rows for this instance. Claimed rows are leased for
+     * {@code webhook.outbox.lease} and become claimable again if not completed by then.
+     *
+     * @param limit the maximum number of rows
+     * @return the claimed rows
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public List<WebhookOutboxEntity> claimBatch(int limit) {
+        final Instant now = Instant.now();
+        final List<WebhookOutboxEntity> claimed = outboxRepository.lockClaimable(now, limit);
+        claimed.forEach(entry -> {
+            entry.setClaimedUntil(now.plus(lease));
+            entry.setAttempts(entry.getAttempts() + 1);
+        });
+        return claimed;
+    }
+
+    /**
+     * Remove a dispatched row from the outbox.
+     *
+     * @param id the outbox row ID
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void complete(UUID id) {
+        outboxRepository.deleteById(id);
+    }
+}
@@ -1,16 +1,20 @@
 package ao.co.oportunidade.webhook.service;
 
 import ao.co.oportunidade.payment.service.PaymentProcessService;
+import ao.co.oportunidade.webhook.WebhookEvent;
 import ao.co.oportunidade.webhook.dto.AppyPayWebhookPayload;
-import io.smallrye.reactive.messaging.annotations.Blocking;
+import ao.co.oportunidade.webhook.health.WebhookMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
 import jakarta.inject.Inject;
-import org.eclipse.microprofile.reactive.messaging.Incoming;
 import org.jboss.logging.Logger;
 
+import java.util.Optional;
+
 /**
- * Async processor for webhook events using SmallRye Reactive Messaging.
- * Processes webhooks asynchronously after immediate HTTP response.
+ * Async processor for webhook events.
+ * Processes webhooks dispatched from the outbox after the immediate HTTP response.
  * Refactored to use DDD services.
  */
 @ApplicationScoped
@@ -24,37 +28,96 @@ public class WebhookProcessor {
     @Inject
     WebhookEventServiceFacade webhookEventService;
 
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    WebhookMetrics metrics;
+
+    /**
+     * Outcome of a call to {@link #processEvent} or {@link #replayEvent}.
+     * A processing failure is thrown instead, after being recorded on the event.
+     */
+    public enum Result {
+        /** The event was claimed and processed. */
+        PROCESSED,
+        /** The event is missing, processed or dead-lettered, so there is nothing left to do. */
+        SETTLED,
+        /** Another claim holds the event, or took it over while it was being processed. */
+        CLAIMED_ELSEWHERE
+    }
+
+    /**
+     * Process the stored webhook event dispatched by the {@link WebhookOutboxPoller}.
+     * The event is claimed before it is read, so the retry count seen is the one this
+     * claim owns; dead-lettered events are only processed by {@link #replayEvent}.
+     *
+     * @param appypayTransactionId the AppyPay transaction ID
+     * @return whether the event was processed, or why it was skipped
+     */
+    @ActivateRequestContext
+    public Result processEvent(String appypayTransactionId) {
+        return process(appypayTransactionId, webhookEventService.markAsProcessing(appypayTransactionId));
+    }
+
+    /**
+     * Process a stored webhook event on an explicit replay, including a dead-lettered one.
+     *
+     * @param appypayTransactionId the AppyPay transaction ID
+     * @return whether the event was processed, or why it was skipped
+     */
+    @ActivateRequestContext
+    public Result replayEvent(String appypayTransactionId) {
+        return process(appypayTransactionId, webhookEventService.markAsProcessingForReplay(appypayTransactionId));
+    }
+
+    private Result process(String appypayTransactionId, boolean claimed) {
+        final Optional<WebhookEvent> event = webhookEventService.findByAppyPayTransactionId(appypayTransactionId);
+        if (!claimed || event.isEmpty()) {
+            final boolean settled = event.map(WebhookEvent::getProcessingStatus)
+                    .map(status -> status == WebhookEvent.ProcessingStatus.PROCESSED
+                            || status == WebhookEvent.ProcessingStatus.DEAD_LETTER)
+                    .orElse(true);
+            LOG.infof("Skipping webhook %s: %s", settled ? "already settled or missing" : "claimed elsewhere",
+                    appypayTransactionId);
+            return settled ? Result.SETTLED : Result.CLAIMED_ELSEWHERE;
+        }
+        return processWebhook(event.get()) ? Result.PROCESSED : Result.CLAIMED_ELSEWHERE;
+    }
+
     /**
-     * Process incoming webhook messages asynchronously.
-     * This method is triggered when a message is sent to the "webhook-events" channel.
+     * Process a claimed webhook event.
      *
-     * @param payload the webhook payload to process
+     * @param event the webhook event, in PROCESSING
+     * @return false if the event left PROCESSING meanwhile, so it was not marked as processed
      */
-    @Incoming("webhook-events-in")
-    @Blocking
-    public void processWebhook(AppyPayWebhookPayload payload) {
-        final String transactionId = payload.getId();
+    private boolean processWebhook(WebhookEvent event) {
+        final String transactionId = event.getAppypayTransactionId();
         LOG.infof("Starting async processing of webhook: %s", transactionId);
 
         try {
-            // Mark as processing
-            webhookEventService.markAsProcessing(transactionId);
-
             // Process the payment
-            paymentProcessService.processWebhook(payload);
+            paymentProcessService.processWebhook(objectMapper.readValue(event.getPayload().json(), AppyPayWebhookPayload.class));
 
-            // Mark as processed
-            webhookEventService.markAsProcessed(transactionId);
+            // Mark as processed, unless another claim took the event over meanwhile
+            if (!webhookEventService.markAsProcessed(transactionId)) {
+                metrics.count(WebhookMetrics.Outcome.CLAIM_LOST);
+                LOG.warnf("Processed webhook %s after its claim was taken over, leaving it to the new claim",
+                        transactionId);
+                return false;
+            }
+            metrics.count(WebhookMetrics.Outcome.PROCESSED);
 
             LOG.infof("Successfully processed webhook: %s", transactionId);
+            return true;
 
         } catch (Exception e) {
             LOG.errorf(e, "Failed to process webhook: %s", transactionId);
-            
-            // Mark as failed
-            webhookEventService.markAsFailed(transactionId, e.getMessage());
 
-            // Could implement retry logic here or move to dead letter queue
+            // Mark as failed, scheduling a retry or moving it to the dead letter queue
+            webhookEventService.markAsFailed(transactionId, event.getRetryCount(), e.getMessage());
+            metrics.count(WebhookMetrics.Outcome.FAILED);
+
             throw new RuntimeException("Webhook processing failed", e);
         }
     }
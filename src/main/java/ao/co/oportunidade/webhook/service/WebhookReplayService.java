@@ -0,0 +1,232 @@
+package ao.co.oportunidade.webhook.service;
+
+import ao.co.oportunidade.webhook.WebhookEvent;
+import ao.co.oportunidade.webhook.WebhookEventService;
+import ao.co.oportunidade.webhook.dto.WebhookReplayRequest;
+import ao.co.oportunidade.webhook.dto.WebhookReplayStatus;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.virtual.threads.VirtualThreads;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import solutions.envision.entity.KeysetPage;
+import solutions.envision.entity.PageCursor;
+import solutions.envision.entity.PageRequest;
+import solutions.envision.service.RateLimiter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays failed and dead-lettered webhook events in the background.
+ * Events are read page by page, released at {@code webhook.replay.rate} events per second and
+ * processed through the {@link WebhookDispatcher} lanes, so a replay of tens of thousands of
+ * events neither bypasses per-order ordering nor floods the database and Odoo.
+ * <p>
+ * Job progress is kept in memory on the instance that runs the replay.
+ */
+@ApplicationScoped
+public class WebhookReplayService {
+
+    private static final Logger LOG = Logger.getLogger(WebhookReplayService.class);
+    private static final Duration JOB_RETENTION = Duration.ofDays(1);
+
+    public static final List<WebhookEvent.ProcessingStatus> REPLAYABLE = List.of(
+            WebhookEvent.ProcessingStatus.FAILED, WebhookEvent.ProcessingStatus.DEAD_LETTER);
+
+    @Inject
+    WebhookEventService webhookEventService;
+
+    @Inject
+    WebhookEventServiceFacade webhookEventServiceFacade;
+
+    @Inject
+    WebhookProcessor webhookProcessor;
+
+    @Inject
+    WebhookDispatcher dispatcher;
+
+    @Inject
+    @VirtualThreads
+    ExecutorService replayExecutor;
+
+    @ConfigProperty(name = "webhook.replay.rate", defaultValue = "20")
+    double defaultRate;
+
+    @ConfigProperty(name = "webhook.replay.max-rate", defaultValue = "200")
+    double maxRate;
+
+    @ConfigProperty(name = "webhook.replay.page-size", defaultValue = "200")
+    int pageSize;
+
+    private final Map<UUID, ReplayJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Build the page filters selecting replayable events.
+     *
+     * @param status FAILED or DEAD_LETTER, both when null
+     * @param webhookType the webhook type, all types when null
+     * @return the filters keyed by entity attribute name
+     */
+    public static Map<String, Object> filters(WebhookEvent.ProcessingStatus status, String webhookType) {
+        final Map<String, Object> filters = new HashMap<>();
+        filters.put("processingStatus", status != null
+                ? status.name()
+                : REPLAYABLE.stream().map(Enum::name).toList());
+        if (webhookType != null) {
+            filters.put("webhookType", webhookType);
+        }
+        return filters;
+    }
+
+    /**
+     * Start replaying the requested events in the background.
+     *
+     * @param request the events to replay and the replay rate
+     * @return the initial job status
+     */
+    public WebhookReplayStatus start(WebhookReplayRequest request) {
+        evictFinishedJobs();
+        final double rate = Math.min(request.getRatePerSecond() != null ? request.getRatePerSecond() : defaultRate,
+                maxRate);
+        final ReplayJob job = new ReplayJob(UUID.randomUUID());
+        jobs.put(job.id, job);
+        LOG.infof("Starting webhook replay %s at %.1f events/s", job.id, rate);
+        replayExecutor.execute(() -> run(job, request, new RateLimiter(rate)));
+        return job.status();
+    }
+
+    /**
+     * Get the progress of a replay job.
+     *
+     * @param jobId the job ID
+     * @return Optional containing the job status if known
+     */
+    public Optional<WebhookReplayStatus> getStatus(UUID jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(ReplayJob::status);
+    }
+
+    private void run(ReplayJob job, WebhookReplayRequest request, RateLimiter rateLimiter) {
+        try {
+            final List<String> ids = request.getAppypayTransactionIds();
+            if (ids != null && !ids.isEmpty()) {
+                for (String id : ids) {
+                    final Optional<WebhookEvent> event = webhookEventServiceFacade.findByAppyPayTransactionId(id);
+                    if (event.isPresent()) {
+                        replay(job, event.get(), rateLimiter);
+                    } else {
+                        LOG.warnf("Cannot replay unknown webhook event: %s", id);
+                        job.submitted.incrementAndGet();
+                        job.skipped();
+                    }
+                }
+            } else {
+                final Map<String, Object> filters = filters(request.getStatus(), request.getWebhookType());
+                PageCursor cursor = null;
+                do {
+                    final PageRequest pageRequest = new PageRequest(cursor, pageSize, filters,
+                            request.getFrom(), request.getTo());
+                    final KeysetPage<WebhookEvent> page = QuarkusTransaction.requiringNew()
+                            .call(() -> webhookEventService.findPage(pageRequest));
+                    page.items().forEach(event -> replay(job, event, rateLimiter));
+                    cursor = page.next();
+                } while (cursor != null);
+            }
+            job.submittingDone();
+            LOG.infof("Webhook replay %s submitted %d events", job.id, job.submitted.get());
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Webhook replay %s aborted after %d events", job.id, job.submitted.get());
+            job.abort();
+        }
+    }
+
+    private void replay(ReplayJob job, WebhookEvent event, RateLimiter rateLimiter) {
+        rateLimiter.acquire();
+        job.submitted.incrementAndGet();
+        final String key = event.getMerchantTransactionId() != null
+                ? event.getMerchantTransactionId() : event.getAppypayTransactionId();
+        dispatcher.dispatch(key, () -> {
+            try {
+                if (webhookProcessor.replayEvent(event.getAppypayTransactionId()) == WebhookProcessor.Result.PROCESSED) {
+                    job.finished(true);
+                } else {
+                    job.skipped();
+                }
+            } catch (Exception e) {
+                job.finished(false);
+            }
+        }, () -> job.finished(false));
+    }
+
+    private void evictFinishedJobs() {
+        final Instant cutoff = Instant.now().minus(JOB_RETENTION);
+        jobs.values().removeIf(job -> {
+            final Instant finishedAt = job.status().getFinishedAt();
+            return finishedAt != null && finishedAt.isBefore(cutoff);
+        });
+    }
+
+    private static final class ReplayJob {
+
+        private final UUID id;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong submitted = new AtomicLong();
+        private final AtomicLong succeeded = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private volatile boolean submittingDone;
+        private volatile boolean aborted;
+        private volatile Instant lastFinishedAt;
+
+        private ReplayJob(UUID id) {
+            this.id = id;
+        }
+
+        void finished(boolean success) {
+            (success ? succeeded : failed).incrementAndGet();
+            lastFinishedAt = Instant.now();
+        }
+
+        void skipped() {
+            skipped.incrementAndGet();
+            lastFinishedAt = Instant.now();
+        }
+
+        void submittingDone() {
+            submittingDone = true;
+            lastFinishedAt = Instant.now();
+        }
+
+        void abort() {
+            aborted = true;
+            lastFinishedAt = Instant.now();
+        }
+
+        WebhookReplayStatus status() {
+            final long done = succeeded.get() + failed.get() + skipped.get();
+            final boolean complete = submittingDone && done == submitted.get();
+            final WebhookReplayStatus.State state = aborted ? WebhookReplayStatus.State.FAILED
+                    : complete ? WebhookReplayStatus.State.COMPLETED
+                    : WebhookReplayStatus.State.RUNNING;
+            return WebhookReplayStatus.builder()
+                    .jobId(id)
+                    .state(state)
+                    .submitted(submitted.get())
+                    .succeeded(succeeded.get())
+                    .failed(failed.get())
+                    .skipped(skipped.get())
+                    .startedAt(startedAt)
+                    .finishedAt(state == WebhookReplayStatus.State.RUNNING ? null : lastFinishedAt)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ao.co.oportunidade.webhook.service;
+
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Applies the webhook event retention policy. Processed events are moved to the archive
+ * {@code webhook.retention.archive-after} after they were received, keeping the live table
+ * and its indexes small, and archived events are deleted after {@code webhook.retention.delete-after}.
+ * Failed and dead-lettered events stay in the live table, where they can be replayed.
+ */
+@ApplicationScoped
+public class WebhookRetentionScheduler {
+
+    private static final Logger LOG = Logger.getLogger(WebhookRetentionScheduler.class);
+
+    @Inject
+    WebhookRetentionService retentionService;
+
+    @ConfigProperty(name = "webhook.retention.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "webhook.retention.archive-after", defaultValue = "30D")
+    Duration archiveAfter;
+
+    @ConfigProperty(name = "webhook.retention.delete-after", defaultValue = "365D")
+    Duration deleteAfter;
+
+    @ConfigProperty(name = "webhook.retention.batch-size", defaultValue = "500")
+    int batchSize;
+
+    /**
+     * Archive due events until a batch comes back short, then purge the expired archive.
+     */
+    @Scheduled(every = "${webhook.retention.interval:1H}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void enforce() {
+        if (!enabled) {
+            return;
+        }
+        final Instant now = Instant.now();
+        final Instant archiveBefore = now.minus(archiveAfter);
+        retentionService.createArchivePartitions(archiveBefore);
+        int archived = 0;
+        int batch;
+        do {
+            batch = retentionService.archiveBatch(archiveBefore, batchSize);
+            archived += batch;
+        } while (batch == batchSize);
+        final int purged = retentionService.purgeArchive(now.minus(deleteAfter));
+        if (archived > 0 || purged > 0) {
+            LOG.infof("Archived %d processed webhook events, purged %d expired ones", archived, purged);
+        }
+    }
+}
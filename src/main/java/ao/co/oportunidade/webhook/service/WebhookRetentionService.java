@@ -0,0 +1,112 @@
+package ao.co.oportunidade.webhook.service;
+
+import ao.co.oportunidade.webhook.WebhookEventRepository;
+import ao.co.oportunidade.webhook.entity.WebhookEventArchiveRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Transactional steps of the webhook event retention policy: processed events move from
+ * {@code webhook_events} to the archive, and archived events are deleted once expired.
+ * On PostgreSQL the archive has one partition per month of receive time, created before
+ * events are moved into it and dropped whole once all of its events expired; elsewhere
+ * expired events are deleted row by row.
+ */
+@ApplicationScoped
+public class WebhookRetentionService {
+
+    private static final Logger LOG = Logger.getLogger(WebhookRetentionService.class);
+
+    /**
+     * Slack around month bounds, covering the time zone receive times are stored in.
+     */
+    private static final long BOUND_SLACK_DAYS = 1;
+
+    @Inject
+    WebhookEventRepository webhookEventRepository;
+
+    @Inject
+    WebhookEventArchiveRepository archiveRepository;
+
+    @ConfigProperty(name = "quarkus.datasource.db-kind")
+    String dbKind;
+
+    /**
+     * Create the archive partitions needed by the events received before the given time.
+     *
+     * @param before the exclusive upper bound of the receive time of the events to archive
+     */
+    @Transactional
+    public void createArchivePartitions(Instant before) {
+        if (!isPartitioned()) {
+            return;
+        }
+        webhookEventRepository.findOldestArchivable(before).ifPresent(oldest -> {
+            final YearMonth last = monthOf(before.plus(BOUND_SLACK_DAYS, ChronoUnit.DAYS));
+            for (YearMonth month = monthOf(oldest.minus(BOUND_SLACK_DAYS, ChronoUnit.DAYS));
+                 !month.isAfter(last); month = month.plusMonths(1)) {
+                archiveRepository.createPartition(month);
+            }
+        });
+    }
+
+    /**
+     * Move one batch of processed events received before the given time to the archive.
+     * Events locked by other instances are skipped.
+     *
+     * @param before the exclusive upper bound of the receive time
+     * @param limit the maximum number of events
+     * @return the number of archived events
+     */
+    @Transactional
+    public int archiveBatch(Instant before, int limit) {
+        final List<UUID> ids = webhookEventRepository.lockArchivable(before, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archiveRepository.archive(ids, Instant.now());
+        webhookEventRepository.deleteByIds(ids);
+        return ids.size();
+    }
+
+    /**
+     * Delete the archived events received before the given time, dropping the partitions
+     * that only hold such events.
+     *
+     * @param before the exclusive upper bound of the receive time
+     * @return the number of events deleted row by row
+     */
+    @Transactional
+    public int purgeArchive(Instant before) {
+        if (isPartitioned()) {
+            for (YearMonth month : archiveRepository.findPartitionMonths()) {
+                final Instant end = month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant()
+                        .plus(BOUND_SLACK_DAYS, ChronoUnit.DAYS);
+                if (end.isAfter(before)) {
+                    break;
+                }
+                archiveRepository.dropPartition(month);
+                LOG.infof("Dropped webhook event archive partition for %s", month);
+            }
+        }
+        return archiveRepository.deleteReceivedBefore(before);
+    }
+
+    private boolean isPartitioned() {
+        return "postgresql".equals(dbKind);
+    }
+
+    private static YearMonth monthOf(Instant instant) {
+        return YearMonth.from(instant.atZone(ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,39 @@
+package ao.co.oportunidade.webhook.service;
+
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Retries failed webhook events once their backoff has elapsed, and events abandoned in
+ * PROCESSING by an instance that crashed or lost its transaction. Due events are claimed with {@code FOR UPDATE SKIP LOCKED} and queued in the outbox again,
+ * so retries go through the same ordered dispatch as new webhooks.
+ */
+@ApplicationScoped
+public class WebhookRetryScheduler {
+
+    private static final Logger LOG = Logger.getLogger(WebhookRetryScheduler.class);
+
+    @Inject
+    WebhookEventServiceFacade webhookEventService;
+
+    @ConfigProperty(name = "webhook.retry.batch-size", defaultValue = "50")
+    int batchSize;
+
+    /**
+     * Requeue due retries until a batch comes back short.
+     */
+    @Scheduled(every = "${webhook.retry.poll-interval:10s}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void retry() {
+        int requeued;
+        do {
+            requeued = webhookEventService.requeueDueRetries(batchSize);
+            if (requeued > 0) {
+                LOG.infof("Requeued or dead-lettered %d failed or abandoned webhook events", requeued);
+            }
+        } while (requeued == batchSize);
+    }
+}
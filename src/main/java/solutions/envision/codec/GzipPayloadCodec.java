@@ -0,0 +1,41 @@
+package solutions.envision.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses payloads with gzip, using only the JDK.
+ */
+public class GzipPayloadCodec implements PayloadCodec {
+
+    public static final String TAG = "gzip";
+
+    @Override
+    public String tag() {
+        return TAG;
+    }
+
+    @Override
+    public byte[] encode(byte[] raw) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public byte[] decode(byte[] encoded) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(encoded))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
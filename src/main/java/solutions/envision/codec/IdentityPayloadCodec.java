@@ -0,0 +1,24 @@
+package solutions.envision.codec;
+
+/**
+ * Stores payloads as they are.
+ */
+public class IdentityPayloadCodec implements PayloadCodec {
+
+    public static final String TAG = "identity";
+
+    @Override
+    public String tag() {
+        return TAG;
+    }
+
+    @Override
+    public byte[] encode(byte[] raw) {
+        return raw;
+    }
+
+    @Override
+    public byte[] decode(byte[] encoded) {
+        return encoded;
+    }
+}
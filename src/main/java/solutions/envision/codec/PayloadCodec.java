@@ -0,0 +1,30 @@
+package solutions.envision.codec;
+
+/**
+ * Reversible encoding of stored payload bytes, e.g. a compression format.
+ * The tag is stored next to every encoded payload, so a codec must keep decoding
+ * what was encoded under its tag for as long as such payloads are kept.
+ */
+public interface PayloadCodec {
+
+    /**
+     * Tag identifying this codec and its parameters that matter for decoding.
+     */
+    String tag();
+
+    /**
+     * Encode raw bytes.
+     *
+     * @param raw the raw bytes
+     * @return the encoded bytes
+     */
+    byte[] encode(byte[] raw);
+
+    /**
+     * Decode bytes encoded by this codec.
+     *
+     * @param encoded the encoded bytes
+     * @return the raw bytes
+     */
+    byte[] decode(byte[] encoded);
+}
@@ -0,0 +1,115 @@
+package solutions.envision.codec;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.github.luben.zstd.ZstdInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+
+/**
+ * Compresses payloads with Zstandard, optionally with a dictionary trained on sample payloads.
+ * A dictionary pays off for small payloads sharing most of their structure, which plain
+ * compression cannot exploit within a single payload. Payloads compressed with a dictionary
+ * are tagged with its ID and can only be decoded with that same dictionary.
+ */
+public class ZstdPayloadCodec implements PayloadCodec {
+
+    public static final String TAG = "zstd";
+    public static final String DICTIONARY_TAG_PREFIX = "zstd-dict-";
+
+    private final String tag;
+    private final int level;
+    private final ZstdDictCompress dictCompress;
+    private final ZstdDictDecompress dictDecompress;
+
+    /**
+     * Codec compressing without a dictionary.
+     *
+     * @param level the compression level
+     */
+    public ZstdPayloadCodec(int level) {
+        this.tag = TAG;
+        this.level = level;
+        this.dictCompress = null;
+        this.dictDecompress = null;
+    }
+
+    /**
+     * Codec compressing with a dictionary, as trained by {@link #train} or {@code zstd --train}.
+     *
+     * @param level the compression level
+     * @param dictionary the dictionary
+     */
+    public ZstdPayloadCodec(int level, byte[] dictionary) {
+        this.tag = dictionaryTag(dictionary);
+        this.level = level;
+        this.dictCompress = new ZstdDictCompress(dictionary, level);
+        this.dictDecompress = new ZstdDictDecompress(dictionary);
+    }
+
+    /**
+     * Train a dictionary on sample payloads.
+     *
+     * @param samples the sample payloads
+     * @param dictionarySize the maximum dictionary size in bytes
+     * @return the dictionary
+     */
+    public static byte[] train(Collection<byte[]> samples, int dictionarySize) {
+        final int sampleSize = samples.stream().mapToInt(sample -> sample.length).sum();
+        final ZstdDictTrainer trainer = new ZstdDictTrainer(sampleSize, dictionarySize);
+        samples.forEach(trainer::addSample);
+        return trainer.trainSamples();
+    }
+
+    /**
+     * Tag of the payloads compressed with a dictionary.
+     *
+     * @param dictionary the dictionary
+     * @return the tag
+     */
+    public static String dictionaryTag(byte[] dictionary) {
+        return DICTIONARY_TAG_PREFIX + Integer.toUnsignedString((int) Zstd.getDictIdFromDict(dictionary));
+    }
+
+    @Override
+    public String tag() {
+        return tag;
+    }
+
+    @Override
+    public byte[] encode(byte[] raw) {
+        return dictCompress == null ? Zstd.compress(raw, level) : Zstd.compress(raw, dictCompress);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Frames that do not record their content size, e.g. written by a streaming encoder,
+     * and frames the size cannot be read from are decoded as a stream.
+     */
+    @Override
+    public byte[] decode(byte[] encoded) {
+        final long size = Zstd.getFrameContentSize(encoded);
+        if (size < 0 || size > Integer.MAX_VALUE) {
+            return decodeStream(encoded);
+        }
+        return dictDecompress == null
+                ? Zstd.decompress(encoded, (int) size)
+                : Zstd.decompress(encoded, dictDecompress, (int) size);
+    }
+
+    private byte[] decodeStream(byte[] encoded) {
+        try (ZstdInputStream zstd = new ZstdInputStream(new ByteArrayInputStream(encoded))) {
+            if (dictDecompress != null) {
+                zstd.setDict(dictDecompress);
+            }
+            return zstd.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
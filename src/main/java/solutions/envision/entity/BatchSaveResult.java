@@ -0,0 +1,57 @@
+package solutions.envision.entity;
+
+import lombok.Getter;
+import solutions.envision.model.Domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-row outcome of a bulk save. Only rows rejected by validation, before reaching
+ * the database, are reported per row: a row failing while being written aborts the
+ * whole batch, as its transaction can no longer commit.
+ */
+@Getter
+public class BatchSaveResult<D extends Domain> {
+
+    /**
+     * What happened to a single row of the batch
+     */
+    public enum Outcome {
+        PERSISTED,
+        MERGED,
+        /** Not written, as the row already exists */
+        SKIPPED,
+        REJECTED
+    }
+
+    public record Row<D>(D domain, Outcome outcome, String error) {
+    }
+
+    private final List<Row<D>> rows = new ArrayList<>();
+
+    public void add(D domain, Outcome outcome) {
+        rows.add(new Row<>(domain, outcome, null));
+    }
+
+    public void reject(D domain, Exception error) {
+        rows.add(new Row<>(domain, Outcome.REJECTED, error.getMessage()));
+    }
+
+    public void addAll(BatchSaveResult<D> other) {
+        rows.addAll(other.getRows());
+    }
+
+    public List<Row<D>> getRows() {
+        return Collections.unmodifiableList(rows);
+    }
+
+    public long count(Outcome outcome) {
+        return rows.stream().filter(row -> row.outcome() == outcome).count();
+    }
+
+    public boolean hasRejections() {
+        return count(Outcome.REJECTED) > 0;
+    }
+}
@@ -2,10 +2,13 @@ package solutions.envision.entity;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 
+import java.time.Instant;
 import java.util.UUID;
 
 public abstract class DomainEntity extends PanacheEntityBase {
 
     public abstract UUID getId();
 
+    public abstract Instant getCreatedDate();
+
 }
@@ -0,0 +1,21 @@
+package solutions.envision.entity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated query.
+ *
+ * @param items the rows of the page
+ * @param next cursor to request the following page with, null on the last page
+ */
+public record KeysetPage<T>(List<T> items, PageCursor next) {
+
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    public <R> KeysetPage<R> map(Function<T, R> mapper) {
+        return new KeysetPage<>(items.stream().map(mapper).toList(), next);
+    }
+}
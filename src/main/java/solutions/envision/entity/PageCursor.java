@@ -0,0 +1,48 @@
+package solutions.envision.entity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of a row in the {@code (createdDate, id)} order used for keyset pagination.
+ * Clients receive it as an opaque URL-safe token.
+ *
+ * @param createdDate creation date of the last row of a page
+ * @param id ID of the last row of a page
+ */
+public record PageCursor(Instant createdDate, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static PageCursor of(DomainEntity entity) {
+        return new PageCursor(entity.getCreatedDate(), entity.getId());
+    }
+
+    /**
+     * @return the cursor as an opaque token
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdDate.toString() + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}.
+     *
+     * @param token the opaque token
+     * @return the cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static PageCursor decode(String token) {
+        try {
+            final String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final int separator = value.indexOf(SEPARATOR);
+            return new PageCursor(Instant.parse(value.substring(0, separator)),
+                    UUID.fromString(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package solutions.envision.entity;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Request for one page of a keyset-paginated query.
+ *
+ * @param after cursor of the last row already seen, null for the first page
+ * @param limit the maximum number of rows of the page
+ * @param filters equality filters keyed by entity attribute name; collection values match any element
+ * @param createdFrom inclusive lower bound of the creation date, null for none
+ * @param createdTo exclusive upper bound of the creation date, null for none
+ */
+public record PageRequest(PageCursor after, int limit, Map<String, Object> filters,
+                          Instant createdFrom, Instant createdTo) {
+
+    public PageRequest(PageCursor after, int limit, Map<String, Object> filters) {
+        this(after, limit, filters, null, null);
+    }
+}
@@ -1,12 +1,23 @@
 package solutions.envision.entity;
 
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
 import jakarta.inject.Inject;
 import lombok.Getter;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.jpa.HibernateHints;
 import solutions.envision.model.Domain;
+import solutions.envision.model.VersionedDomain;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
 
 @Getter
 public abstract class Repository<D extends Domain,DE extends DomainEntity, M extends EntityMapper<D,DE>> implements PanacheRepository<DE> {
@@ -15,17 +26,187 @@ public abstract class Repository<D extends Domain,DE extends DomainEntity, M ext
     @Inject
     M mapper;
 
+    @ConfigProperty(name = "repository.batch-size", defaultValue = "50")
+    int batchSize;
+
    protected abstract Collection<D> findDomains();
    public abstract Optional<D> findDomainById(D domain);
+
+   /**
+    * Save strategy of this repository, {@link SaveMode#LOOKUP} unless overridden.
+    */
+   protected SaveMode getSaveMode() {
+       return SaveMode.LOOKUP;
+   }
+
+   /**
+    * Finds a domain by the simple natural ID of its entity. The ID is resolved through the
+    * natural-ID cache, and the row through the second-level cache, when the entity opts in.
+    *
+    * @param entityClass the entity class
+    * @param naturalId the natural ID, may be null
+    * @return the domain, if found
+    */
+   protected Optional<D> findDomainByNaturalId(Class<DE> entityClass, Object naturalId) {
+       if (naturalId == null) {
+           return Optional.empty();
+       }
+       return getSession().bySimpleNaturalId(entityClass)
+               .loadOptional(naturalId)
+               .map(mapper::mapToDomain);
+   }
+
+   /**
+    * Saves one domain. A merged versioned domain is flushed right away, so the version the
+    * merge incremented can be written back and the domain saved again in a later transaction
+    * without being read back first; an optimistic-lock conflict is raised here as a result.
+    *
+    * @param domain the domain to save
+    */
    public final void save(D domain) {
+       final Written<DE> written = write(domain, mapper.mapToEntity(domain));
+       if (written.outcome() == BatchSaveResult.Outcome.MERGED && domain instanceof VersionedDomain) {
+           getEntityManager().flush();
+       }
+       writeBackVersion(domain, written.managed());
+   }
 
-       final DE domainEntity = mapper.mapToEntity(domain);
+   /**
+    * Saves the domains in chunks of {@code repository.batch-size}, flushing and clearing the
+    * persistence context after each chunk so Hibernate can send the inserts as JDBC batches.
+    * Any error raised while writing or flushing a row aborts the whole batch: once the
+    * persistence context failed, the transaction is marked for rollback and no row of it commits.
+    *
+    * @param domains the domains to save
+    * @return the outcome of every row
+    */
+   public final BatchSaveResult<D> saveAll(Collection<D> domains) {
+       final BatchSaveResult<D> result = new BatchSaveResult<>();
+       final Map<D, DE> chunk = new IdentityHashMap<>();
+       for (D domain : domains) {
+           final Written<DE> written = write(domain, mapper.mapToEntity(domain));
+           chunk.put(domain, written.managed());
+           result.add(domain, written.outcome());
+           if (chunk.size() == batchSize) {
+               flushChunk(chunk);
+           }
+       }
+       flushChunk(chunk);
+       return result;
+   }
+
+   private void flushChunk(Map<D, DE> chunk) {
+       getEntityManager().flush();
+       chunk.forEach(Repository::writeBackVersion);
+       chunk.clear();
+       getEntityManager().clear();
+   }
+
+   private Written<DE> write(D domain, DE domainEntity) {
+       if (getSaveMode() == SaveMode.VERSIONED) {
+           return saveVersioned(domainEntity);
+       }
        final Optional<D> domainById = findDomainById(domain);
        if(domainById.isPresent()) {
-           getEntityManager().merge(domainEntity);
+           return new Written<>(BatchSaveResult.Outcome.MERGED, getEntityManager().merge(domainEntity));
        } else  {
            getEntityManager().persist(domainEntity);
+           return new Written<>(BatchSaveResult.Outcome.PERSISTED, domainEntity);
+       }
+   }
+
+   /**
+    * Persists entities that were never saved and merges the others, relying on the
+    * version column for the optimistic-lock check instead of a lookup query.
+    */
+   private Written<DE> saveVersioned(DE domainEntity) {
+       if (!(domainEntity instanceof Versioned versioned)) {
+           throw new IllegalStateException(domainEntity.getClass().getSimpleName()
+                   + " must implement Versioned to use " + SaveMode.VERSIONED);
+       }
+       if (versioned.getVersion() == null) {
+           getEntityManager().persist(domainEntity);
+           return new Written<>(BatchSaveResult.Outcome.PERSISTED, domainEntity);
+       }
+       return new Written<>(BatchSaveResult.Outcome.MERGED, getEntityManager().merge(domainEntity));
+   }
+
+   /**
+    * Copies the version of the managed entity back to the domain, so saving the same domain
+    * again merges it instead of persisting a duplicate. Persisting assigns the initial version
+    * right away, while a merge only increments it when flushed: {@link #save} flushes a merge
+    * first, {@link #saveAll} writes the version back after each flushed chunk.
+    */
+   private static void writeBackVersion(Domain domain, Object managedEntity) {
+       if (domain instanceof VersionedDomain versionedDomain && managedEntity instanceof Versioned versioned) {
+           versionedDomain.setVersion(versioned.getVersion());
+       }
+   }
+
+   private record Written<DE>(BatchSaveResult.Outcome outcome, DE managed) {
+   }
+
+   /**
+    * Finds one page of domains in {@code (createdDate, id)} order, starting after the
+    * request's cursor. One extra row is read to tell whether a next page exists.
+    *
+    * @param request the page request
+    * @return the page and the cursor of the next one
+    */
+   public KeysetPage<D> findPage(PageRequest request) {
+       final List<DE> entities = keysetQuery(request)
+               .range(0, request.limit())
+               .list();
+       final boolean hasNext = entities.size() > request.limit();
+       final List<DE> page = hasNext ? entities.subList(0, request.limit()) : entities;
+       return new KeysetPage<>(page.stream().map(mapper::mapToDomain).toList(),
+               hasNext ? PageCursor.of(page.getLast()) : null);
+   }
+
+   /**
+    * Streams all domains matching the filters in {@code (createdDate, id)} order.
+    * Rows are fetched {@code repository.batch-size} at a time and detached once mapped,
+    * so memory use does not grow with the table. Must be consumed, and closed,
+    * within a transaction.
+    *
+    * @param filters equality filters keyed by entity attribute name
+    * @return the domains
+    */
+   public Stream<D> streamDomains(Map<String, Object> filters) {
+       return keysetQuery(new PageRequest(null, 0, filters))
+               .withHint(HibernateHints.HINT_FETCH_SIZE, batchSize)
+               .withHint(HibernateHints.HINT_READ_ONLY, true)
+               .stream()
+               .map(entity -> {
+                   final D domain = mapper.mapToDomain(entity);
+                   getEntityManager().detach(entity);
+                   return domain;
+               });
+   }
+
+   private PanacheQuery<DE> keysetQuery(PageRequest request) {
+       final StringJoiner where = new StringJoiner(" and ");
+       final Map<String, Object> parameters = new HashMap<>();
+       request.filters().forEach((attribute, value) -> {
+           where.add(attribute + (value instanceof Collection<?> ? " in :" : " = :") + attribute);
+           parameters.put(attribute, value);
+       });
+       if (request.createdFrom() != null) {
+           where.add("createdDate >= :createdFrom");
+           parameters.put("createdFrom", request.createdFrom());
+       }
+       if (request.createdTo() != null) {
+           where.add("createdDate < :createdTo");
+           parameters.put("createdTo", request.createdTo());
+       }
+       final PageCursor after = request.after();
+       if (after != null) {
+           where.add("(createdDate > :afterCreatedDate or (createdDate = :afterCreatedDate and id > :afterId))");
+           parameters.put("afterCreatedDate", after.createdDate());
+           parameters.put("afterId", after.id());
        }
+       final Sort sort = Sort.by("createdDate").and("id");
+       return parameters.isEmpty() ? findAll(sort) : find(where.toString(), sort, parameters);
    }
 
 }
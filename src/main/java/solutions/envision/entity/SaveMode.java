@@ -0,0 +1,18 @@
+package solutions.envision.entity;
+
+/**
+ * Strategy used by {@link Repository#save(solutions.envision.model.Domain)}.
+ */
+public enum SaveMode {
+
+    /**
+     * Looks the domain up by id first, then persists or merges.
+     */
+    LOOKUP,
+
+    /**
+     * Decides between persist and merge from the entity version alone,
+     * without a pre-read. Requires the entity to implement {@link Versioned}.
+     */
+    VERSIONED
+}
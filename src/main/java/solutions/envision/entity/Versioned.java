@@ -0,0 +1,10 @@
+package solutions.envision.entity;
+
+/**
+ * Implemented by entities carrying an optimistic-lock version.
+ * A {@code null} version marks an entity that has never been persisted.
+ */
+public interface Versioned {
+
+    Long getVersion();
+}
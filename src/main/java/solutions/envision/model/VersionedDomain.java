@@ -0,0 +1,14 @@
+package solutions.envision.model;
+
+/**
+ * Implemented by domains carrying the optimistic-lock version of their entity.
+ * The repository writes the entity's version back once the save is flushed, which
+ * {@code Repository.save} does immediately and {@code Repository.saveAll} per chunk,
+ * so the same domain can be saved again without being read back first.
+ */
+public interface VersionedDomain {
+
+    Long getVersion();
+
+    void setVersion(Long version);
+}
@@ -0,0 +1,26 @@
+package solutions.envision.odoo.dto;
+
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Response of the Odoo multi-payment endpoint: one result per payment, in request order.
+ */
+@Setter
+@Getter
+public class OdooBulkPaymentResponse {
+
+    @JsonProperty("success")
+    private Boolean success;
+
+    @JsonProperty("results")
+    private List<OdooWebhookResponse> results;
+
+    @JsonProperty("error")
+    private String error;
+
+}
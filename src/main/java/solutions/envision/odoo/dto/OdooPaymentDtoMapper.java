@@ -31,6 +31,11 @@ public interface OdooPaymentDtoMapper extends DtoMapper<OdooPaymentRequest.Payme
     @Mapping(target = "updatedDate", ignore = true)
     @Mapping(target = "errorMessage", ignore = true)
     @Mapping(target = "paymentId", ignore = true)
+    @Mapping(target = "odooSyncStatus", ignore = true)
+    @Mapping(target = "odooSyncAttempts", ignore = true)
+    @Mapping(target = "odooNextAttemptAt", ignore = true)
+    @Mapping(target = "odooSyncError", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Override
     PaymentTransaction mapToDomain(OdooPaymentRequest.PaymentData paymentData);
 
@@ -1,12 +1,15 @@
 package solutions.envision.odoo.service;
 
 
+import solutions.envision.odoo.dto.OdooBulkPaymentResponse;
 import solutions.envision.odoo.dto.OdooPaymentRequest;
 import solutions.envision.odoo.dto.OdooWebhookResponse;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
+import java.util.List;
+
 @RegisterRestClient(configKey = "odoo-api")
 @Path("/api")
 public interface OdooApiClient {
@@ -22,4 +25,22 @@ public interface OdooApiClient {
             @HeaderParam("X-Odoo-Webhook-Key") String webhookKey,
             OdooPaymentRequest.PaymentData payment
     );
-}
\ No newline at end of file
+
+    /**
+     * Send several payments to Odoo's multi-payment endpoint in one request.
+     * <p>
+     * This endpoint is not part of Odoo: it must be deployed by the Odoo-side webhook module
+     * before {@code odoo.sync.bulk.enabled} is switched on. It takes the same
+     * {@code X-Odoo-Webhook-Key} header as {@link #sendPayment} and a JSON array of payments,
+     * and answers with an {@link OdooBulkPaymentResponse} holding one result per payment,
+     * in request order, shaped like the single-payment response.
+     */
+    @POST
+    @Path("/webhook/payments")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes(MediaType.APPLICATION_JSON)
+    OdooBulkPaymentResponse sendPayments(
+            @HeaderParam("X-Odoo-Webhook-Key") String webhookKey,
+            List<OdooPaymentRequest.PaymentData> payments
+    );
+}
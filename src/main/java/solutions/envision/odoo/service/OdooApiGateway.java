@@ -0,0 +1,38 @@
+package solutions.envision.odoo.service;
+
+
+import io.smallrye.faulttolerance.api.CircuitBreakerName;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+
+import java.time.temporal.ChronoUnit;
+import java.util.function.Supplier;
+
+/**
+ * Single entry point for calls to {@link OdooApiClient}, guarded by one circuit breaker and one bulkhead.
+ * When Odoo keeps failing the breaker opens and calls fail fast with a
+ * {@link org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException};
+ * beyond the bulkhead limit they fail with a
+ * {@link org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException} instead of waiting.
+ * Limits are configured under {@code quarkus.fault-tolerance."solutions.envision.odoo.service.OdooApiGateway/call"}.
+ */
+@ApplicationScoped
+public class OdooApiGateway {
+
+    public static final String CIRCUIT_BREAKER = "odoo-api";
+
+    /**
+     * Run a request against Odoo.
+     *
+     * @param request the REST client call
+     * @return the response
+     */
+    @CircuitBreaker(requestVolumeThreshold = 20, failureRatio = 0.5,
+            delay = 30, delayUnit = ChronoUnit.SECONDS, successThreshold = 2)
+    @CircuitBreakerName(CIRCUIT_BREAKER)
+    @Bulkhead(16)
+    public <T> T call(Supplier<T> request) {
+        return request.get();
+    }
+}
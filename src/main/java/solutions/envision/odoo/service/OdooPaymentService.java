@@ -1,6 +1,7 @@
 package solutions.envision.odoo.service;
 
 
+import solutions.envision.odoo.dto.OdooBulkPaymentResponse;
 import solutions.envision.odoo.dto.OdooPaymentDtoMapper;
 import solutions.envision.odoo.dto.OdooPaymentRequest;
 import solutions.envision.odoo.dto.OdooWebhookResponse;
@@ -9,9 +10,12 @@ import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.faulttolerance.exceptions.FaultToleranceException;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.logging.Logger;
 
+import java.util.List;
+
 @ApplicationScoped
 public class OdooPaymentService {
 
@@ -21,6 +25,9 @@ public class OdooPaymentService {
     @RestClient
     OdooApiClient odooClient;
 
+    @Inject
+    OdooApiGateway odooGateway;
+
     @Inject
     OdooPaymentDtoMapper mapper;
 
@@ -37,7 +44,8 @@ public class OdooPaymentService {
     Integer defaultPaymentMethodId;
 
     /**
-     * Send payment to Odoo via their webhook endpoint
+     * Send payment to Odoo via their webhook endpoint.
+     * Throws a {@link FaultToleranceException} without calling Odoo while its circuit is open.
      */
     public void sendPaymentToOdoo(PaymentTransaction transaction) {
         LOG.infof("Sending payment %s to Odoo webhook", transaction.getId().toString());
@@ -49,10 +57,10 @@ public class OdooPaymentService {
             Log.infof("Odoo request payload:\n%s", request);
 
             // Send to Odoo webhook
-            final OdooWebhookResponse response = odooClient.sendPayment(
+            final OdooWebhookResponse response = odooGateway.call(() -> odooClient.sendPayment(
                     odooWebhookKey,
                     request.getPayment()
-            );
+            ));
 
             // Check response
             if (Boolean.TRUE.equals(response.getSuccess())) {
@@ -68,12 +76,52 @@ public class OdooPaymentService {
                 throw new OdooSyncException("Odoo rejected payment: " + response.getError());
             }
 
+        } catch (FaultToleranceException e) {
+            // Odoo was not called, the circuit is open or the bulkhead full
+            throw e;
         } catch (Exception e) {
             LOG.errorf(e, "Failed to send payment to Odoo " + transaction.getId().toString());
             throw new OdooSyncException("Failed to sync to Odoo", e);
         }
     }
 
+    /**
+     * Send several payments to Odoo in one request. Payments Odoo accepted get their
+     * Odoo payment ID set; a failure of the whole request throws, a {@link FaultToleranceException}
+     * if Odoo was not called at all.
+     *
+     * @return Odoo's result of every transaction, in the given order
+     */
+    public List<OdooWebhookResponse> sendPaymentsToOdoo(List<PaymentTransaction> transactions) {
+        LOG.infof("Sending %d payments to Odoo webhook", transactions.size());
+
+        try {
+            final List<OdooPaymentRequest.PaymentData> payments = transactions.stream()
+                    .map(transaction -> mapOdooRequest(transaction).getPayment())
+                    .toList();
+
+            final OdooBulkPaymentResponse response =
+                    odooGateway.call(() -> odooClient.sendPayments(odooWebhookKey, payments));
+
+            final List<OdooWebhookResponse> results = response.getResults();
+            if (results == null || results.size() != transactions.size()) {
+                throw new OdooSyncException("Odoo rejected payments: " + response.getError());
+            }
+            for (int i = 0; i < results.size(); i++) {
+                if (Boolean.TRUE.equals(results.get(i).getSuccess())) {
+                    transactions.get(i).setPaymentId(results.get(i).getPaymentId());
+                }
+            }
+            return results;
+
+        } catch (FaultToleranceException e) {
+            throw e;
+        } catch (Exception e) {
+            LOG.errorf(e, "Failed to send %d payments to Odoo", transactions.size());
+            throw new OdooSyncException("Failed to sync to Odoo", e);
+        }
+    }
+
     /**
      * Build Odoo payment request from transaction
      */
@@ -1,12 +1,25 @@
 package solutions.envision.resource;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import lombok.Getter;
 import solutions.envision.dto.DTO;
 import solutions.envision.dto.DtoMapper;
+import solutions.envision.entity.KeysetPage;
+import solutions.envision.entity.PageCursor;
+import solutions.envision.entity.PageRequest;
 import solutions.envision.model.Domain;
 import solutions.envision.service.DomainService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.stream.Stream;
+
 
 @Getter
 public abstract class Resource <DT extends DTO,D extends Domain>{
@@ -14,9 +27,82 @@ public abstract class Resource <DT extends DTO,D extends Domain>{
     public static final int OK = 200;
     public static final int SERVER_FAILURE = 503;
     public static final String API_VERSION_PATH = "/api/v1";
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String DEFAULT_PAGE_SIZE = "50";
+    public static final int MAX_PAGE_SIZE = 500;
     @Inject
     DtoMapper<DT,D> mapper;
     @Inject
     DomainService<D,?> service;
+    @Inject
+    ObjectMapper objectMapper;
+
+    /**
+     * Respond with one keyset page of DTOs. The cursor of the next page, if any,
+     * is returned in the {@value #NEXT_CURSOR_HEADER} header.
+     *
+     * @param after the cursor returned with the previous page, null for the first page
+     * @param limit the page size, at most {@value #MAX_PAGE_SIZE}
+     * @param filters equality filters keyed by entity attribute name
+     * @return the page, or 400 if the cursor or limit is invalid
+     */
+    protected Response page(String after, int limit, Map<String, Object> filters) {
+        return page(after, limit, filters, null, null);
+    }
+
+    /**
+     * Respond with one keyset page of DTOs created within a time range.
+     *
+     * @param after the cursor returned with the previous page, null for the first page
+     * @param limit the page size, at most {@value #MAX_PAGE_SIZE}
+     * @param filters equality filters keyed by entity attribute name
+     * @param createdFrom inclusive lower bound of the creation date, null for none
+     * @param createdTo exclusive upper bound of the creation date, null for none
+     * @return the page, or 400 if the cursor or limit is invalid
+     */
+    protected Response page(String after, int limit, Map<String, Object> filters,
+                            Instant createdFrom, Instant createdTo) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("limit must be between 1 and " + MAX_PAGE_SIZE)
+                    .build();
+        }
+        final PageCursor cursor;
+        try {
+            cursor = after == null ? null : PageCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("invalid cursor").build();
+        }
+        final KeysetPage<DT> page = getService().findPage(new PageRequest(cursor, limit, filters, createdFrom, createdTo))
+                .map(getMapper()::mapToDto);
+        final Response.ResponseBuilder response = Response.ok(page.items());
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, page.next().encode());
+        }
+        return response.build();
+    }
+
+    /**
+     * Stream all matching DTOs as newline-delimited JSON, writing each row as it is read
+     * inside a single read transaction.
+     *
+     * @param filters equality filters keyed by entity attribute name
+     * @return the streaming body
+     */
+    protected StreamingOutput stream(Map<String, Object> filters) {
+        return output -> QuarkusTransaction.requiringNew().run(() -> {
+            try (Stream<D> domains = getService().streamAll(filters)) {
+                domains.forEach(domain -> {
+                    try {
+                        output.write(objectMapper.writeValueAsBytes(getMapper().mapToDto(domain)));
+                        output.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        });
+    }
 
 }
@@ -0,0 +1,44 @@
+package solutions.envision.service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs tasks on an executor with at most {@code maxConcurrency} of them in flight.
+ * Submitting blocks the caller while the limit is reached, which pushes back on
+ * the producer instead of queueing unbounded work.
+ */
+public class BoundedExecutor {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    public BoundedExecutor(ExecutorService executor, int maxConcurrency) {
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * Submit a task, waiting for a free slot first.
+     *
+     * @param task the task to run
+     * @return false if the executor rejected the task
+     */
+    public boolean submit(Runnable task) {
+        permits.acquireUninterruptibly();
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            return false;
+        }
+    }
+}
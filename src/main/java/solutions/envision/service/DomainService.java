@@ -1,5 +1,9 @@
 package solutions.envision.service;
 
+import jakarta.transaction.Transactional;
+import solutions.envision.entity.BatchSaveResult;
+import solutions.envision.entity.KeysetPage;
+import solutions.envision.entity.PageRequest;
 import solutions.envision.entity.Repository;
 import jakarta.inject.Inject;
 import lombok.Getter;
@@ -7,9 +11,13 @@ import solutions.envision.model.Domain;
 import solutions.envision.model.DomainNotCreatedException;
 
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 
 @Getter
@@ -21,6 +29,51 @@ public abstract class DomainService <D extends Domain, R extends Repository<D,?,
     public abstract Collection<D> getAllDomains();
     public abstract void saveDomain(D  domain);
 
+    /**
+     * Validate and save many domains in one transaction using batched writes.
+     * Domains failing validation are reported as rejected rows and never reach the database;
+     * any error raised while writing the others rolls back the whole batch.
+     *
+     * @param domains the domains to save
+     * @return the outcome of every row
+     */
+    @Transactional
+    public BatchSaveResult<D> saveAll(Collection<D> domains) {
+        final BatchSaveResult<D> result = new BatchSaveResult<>();
+        final List<D> valid = new ArrayList<>(domains.size());
+        for (D domain : domains) {
+            try {
+                validateDomain(domain);
+                valid.add(domain);
+            } catch (DomainNotCreatedException | NullPointerException e) {
+                result.reject(domain, e);
+            }
+        }
+        result.addAll(getRepository().saveAll(valid));
+        return result;
+    }
+
+    /**
+     * Find one page of domains in creation order.
+     *
+     * @param request the page request
+     * @return the page and the cursor of the next one
+     */
+    public KeysetPage<D> findPage(PageRequest request) {
+        return getRepository().findPage(request);
+    }
+
+    /**
+     * Stream all domains matching the filters in creation order.
+     * The stream must be consumed, and closed, within a transaction.
+     *
+     * @param filters equality filters keyed by entity attribute name
+     * @return the domains
+     */
+    public Stream<D> streamAll(Map<String, Object> filters) {
+        return getRepository().streamDomains(filters);
+    }
+
     protected void validateDomain(D domain) throws DomainNotCreatedException {
         UUID id = Optional.ofNullable(domain).orElseThrow(() -> new NullPointerException(
                 "Domain  does not exist"
@@ -0,0 +1,87 @@
+package solutions.envision.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Groups items into batches of at most {@code maxSize}. A batch is flushed as soon as it is
+ * full, or by {@link #flushIfLingering()} once its first item has waited {@code linger}.
+ * Flushing hands the batch to the consumer on the calling thread, outside the lock.
+ *
+ * @param <T> the item type
+ */
+public class MicroBatcher<T> {
+
+    private final int maxSize;
+    private final long lingerNanos;
+    private final Consumer<List<T>> flush;
+
+    private List<T> buffer;
+    private long firstAddedAt;
+
+    public MicroBatcher(int maxSize, Duration linger, Consumer<List<T>> flush) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.lingerNanos = linger.toNanos();
+        this.flush = flush;
+        this.buffer = new ArrayList<>(maxSize);
+    }
+
+    /**
+     * Add an item, flushing the batch if this fills it.
+     *
+     * @param item the item
+     */
+    public void add(T item) {
+        final List<T> full;
+        synchronized (this) {
+            if (buffer.isEmpty()) {
+                firstAddedAt = System.nanoTime();
+            }
+            buffer.add(item);
+            if (buffer.size() < maxSize) {
+                return;
+            }
+            full = drain();
+        }
+        flush.accept(full);
+    }
+
+    /**
+     * Flush the batch if its first item has waited at least the linger time.
+     */
+    public void flushIfLingering() {
+        final List<T> lingering;
+        synchronized (this) {
+            if (buffer.isEmpty() || System.nanoTime() - firstAddedAt < lingerNanos) {
+                return;
+            }
+            lingering = drain();
+        }
+        flush.accept(lingering);
+    }
+
+    /**
+     * Flush the batch regardless of its age.
+     */
+    public void flush() {
+        final List<T> pending;
+        synchronized (this) {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            pending = drain();
+        }
+        flush.accept(pending);
+    }
+
+    private List<T> drain() {
+        final List<T> drained = buffer;
+        buffer = new ArrayList<>(maxSize);
+        return drained;
+    }
+}
@@ -0,0 +1,94 @@
+package solutions.envision.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Runs tasks one at a time, in submission order, on a shared executor.
+ * No thread is held while the queue is empty.
+ * <p>
+ * When the executor rejects a task, that task and every task queued behind it are dropped
+ * and handed to the rejection handler, so none is left waiting for a submission that may
+ * never come.
+ */
+public class SerialExecutor implements Executor {
+
+    private final Executor executor;
+    private final Consumer<Runnable> onRejected;
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private Runnable active;
+
+    /**
+     * @param executor the executor running the tasks
+     * @param onRejected called, outside of any lock, with each task dropped after a rejection
+     */
+    public SerialExecutor(Executor executor, Consumer<Runnable> onRejected) {
+        this.executor = executor;
+        this.onRejected = onRejected;
+    }
+
+    /**
+     * Queue a task behind the ones already submitted. Never throws on rejection:
+     * rejected tasks are handed to the rejection handler instead.
+     *
+     * @param task the task to run
+     */
+    @Override
+    public void execute(Runnable task) {
+        final List<Runnable> dropped;
+        synchronized (this) {
+            tasks.add(task);
+            dropped = active == null ? scheduleNext() : List.of();
+        }
+        dropped.forEach(onRejected);
+    }
+
+    /**
+     * @return the number of tasks waiting behind the running one
+     */
+    public synchronized int getQueueDepth() {
+        return tasks.size();
+    }
+
+    private void runAndScheduleNext(Runnable task) {
+        try {
+            task.run();
+        } finally {
+            final List<Runnable> dropped;
+            synchronized (this) {
+                dropped = scheduleNext();
+            }
+            dropped.forEach(onRejected);
+        }
+    }
+
+    /**
+     * Hand the next task to the executor. Must be called holding the lock.
+     *
+     * @return the tasks dropped because the executor rejected the next one
+     */
+    private List<Runnable> scheduleNext() {
+        final Runnable next = tasks.poll();
+        if (next == null) {
+            active = null;
+            return List.of();
+        }
+        active = () -> runAndScheduleNext(next);
+        try {
+            executor.execute(active);
+            return List.of();
+        } catch (RejectedExecutionException e) {
+            active = null;
+            final List<Runnable> dropped = new ArrayList<>(tasks.size() + 1);
+            dropped.add(next);
+            dropped.addAll(tasks);
+            tasks.clear();
+            return dropped;
+        }
+    }
+}
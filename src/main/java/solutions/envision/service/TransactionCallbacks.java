@@ -0,0 +1,70 @@
+package solutions.envision.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Runs callbacks once the current JTA transaction completes, for in-memory state such as
+ * caches and subscribers that must only see committed writes. Without a transaction the write
+ * is already durable, so callbacks run immediately as if it had committed.
+ */
+@ApplicationScoped
+public class TransactionCallbacks {
+
+    @Inject
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    /**
+     * Run an action once the current transaction commits; it does not run on rollback.
+     *
+     * @param action the action
+     */
+    public void afterCommit(Runnable action) {
+        afterCompletion(status -> {
+            if (status == Status.STATUS_COMMITTED) {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Run a callback once the current transaction completes, whatever its outcome. A transaction
+     * already marked for rollback, or past its outcome, reports that outcome immediately.
+     *
+     * @param callback receives the {@link Status} the transaction completed with,
+     *                 {@link Status#STATUS_COMMITTED} when no transaction is active and
+     *                 {@link Status#STATUS_UNKNOWN} when a completing transaction accepts no callback
+     */
+    public void afterCompletion(IntConsumer callback) {
+        switch (transactionSynchronizationRegistry.getTransactionStatus()) {
+            case Status.STATUS_NO_TRANSACTION, Status.STATUS_COMMITTED -> callback.accept(Status.STATUS_COMMITTED);
+            case Status.STATUS_MARKED_ROLLBACK, Status.STATUS_ROLLING_BACK, Status.STATUS_ROLLEDBACK ->
+                    callback.accept(Status.STATUS_ROLLEDBACK);
+            default -> {
+                try {
+                    register(callback);
+                } catch (IllegalStateException e) {
+                    callback.accept(Status.STATUS_UNKNOWN);
+                }
+            }
+        }
+    }
+
+    private void register(IntConsumer callback) {
+        transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int transactionStatus) {
+                callback.accept(transactionStatus);
+            }
+        });
+    }
+}
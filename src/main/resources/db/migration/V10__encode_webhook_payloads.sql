@@ -0,0 +1,16 @@
+-- Webhook payloads are stored as bytes encoded by the codec named in payload_codec;
+-- existing payloads keep their JSON, tagged as unencoded
+--
+-- DOWNTIME: the type change rewrites webhook_events and webhook_events_archive under an
+-- ACCESS EXCLUSIVE lock, blocking webhook ingest and every read of the tables until it ends,
+-- roughly the time to copy both tables. Run it in a maintenance window with the ingest stopped.
+-- Rows are not recompressed: only payloads written after the upgrade use webhook.payload.codec.
+SET LOCAL lock_timeout = '10s';
+
+ALTER TABLE webhook_events ADD COLUMN IF NOT EXISTS payload_codec VARCHAR(32) NOT NULL DEFAULT 'identity';
+ALTER TABLE webhook_events ALTER COLUMN payload TYPE BYTEA USING convert_to(payload, 'UTF8');
+ALTER TABLE webhook_events ALTER COLUMN payload_codec DROP DEFAULT;
+
+ALTER TABLE webhook_events_archive ADD COLUMN IF NOT EXISTS payload_codec VARCHAR(32) NOT NULL DEFAULT 'identity';
+ALTER TABLE webhook_events_archive ALTER COLUMN payload TYPE BYTEA USING convert_to(payload, 'UTF8');
+ALTER TABLE webhook_events_archive ALTER COLUMN payload_codec DROP DEFAULT;
@@ -0,0 +1,29 @@
+-- One reference per reference number, backing the cached lookup by reference number.
+-- The reference table is created from the entity mapping, so skip databases that lack it yet.
+DO $$
+BEGIN
+    IF to_regclass('reference') IS NULL THEN
+        RETURN;
+    END IF;
+
+    -- Keep the earliest reference per number, as the lookup returned, and move orders onto it
+    CREATE TEMPORARY TABLE reference_duplicates ON COMMIT DROP AS
+    SELECT id, FIRST_VALUE(id) OVER (
+        PARTITION BY referenceNumber
+        ORDER BY createdDate NULLS LAST, id
+    ) AS kept_id
+    FROM reference
+    WHERE referenceNumber IS NOT NULL;
+
+    DELETE FROM reference_duplicates WHERE id = kept_id;
+
+    UPDATE orders o SET reference_id = d.kept_id
+    FROM reference_duplicates d
+    WHERE o.reference_id = d.id;
+
+    DELETE FROM reference_amounts ra USING reference_duplicates d WHERE ra.reference_id = d.id;
+    DELETE FROM reference r USING reference_duplicates d WHERE r.id = d.id;
+
+    DROP INDEX IF EXISTS idx_reference_number;
+    CREATE UNIQUE INDEX idx_reference_number ON reference(referenceNumber);
+END $$;
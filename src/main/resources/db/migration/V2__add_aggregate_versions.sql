@@ -0,0 +1,4 @@
+-- Optimistic-lock versions used by the versioned save mode of the repositories
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE payment_transactions ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE webhook_events ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,12 @@
+-- Create webhook_outbox table
+CREATE TABLE IF NOT EXISTS webhook_outbox (
+    id UUID PRIMARY KEY,
+    webhook_event_id UUID NOT NULL,
+    appypayTransactionId VARCHAR(100) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    claimed_until TIMESTAMP,
+    created_date TIMESTAMP NOT NULL
+);
+
+-- Create indexes for webhook_outbox
+CREATE INDEX IF NOT EXISTS idx_webhook_outbox_created ON webhook_outbox(created_date);
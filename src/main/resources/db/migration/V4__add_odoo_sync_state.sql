@@ -0,0 +1,8 @@
+-- Odoo sync stage state on payment_transactions
+ALTER TABLE payment_transactions ADD COLUMN IF NOT EXISTS odoo_payment_id INTEGER;
+ALTER TABLE payment_transactions ADD COLUMN IF NOT EXISTS odoo_sync_status VARCHAR(20);
+ALTER TABLE payment_transactions ADD COLUMN IF NOT EXISTS odoo_sync_attempts INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE payment_transactions ADD COLUMN IF NOT EXISTS odoo_next_attempt_at TIMESTAMP;
+ALTER TABLE payment_transactions ADD COLUMN IF NOT EXISTS odoo_sync_error TEXT;
+
+CREATE INDEX IF NOT EXISTS idx_payment_tx_odoo_sync ON payment_transactions(odoo_sync_status, odoo_next_attempt_at);
@@ -0,0 +1,3 @@
+-- Indexes backing keyset pagination on (created_date, id)
+CREATE INDEX IF NOT EXISTS idx_order_created_id ON orders(created_date, id);
+CREATE INDEX IF NOT EXISTS idx_payment_tx_created_id ON payment_transactions(created_date, id);
@@ -0,0 +1,2 @@
+-- Ordering key of the webhook processing lanes
+ALTER TABLE webhook_outbox ADD COLUMN IF NOT EXISTS merchantTransactionId VARCHAR(100);
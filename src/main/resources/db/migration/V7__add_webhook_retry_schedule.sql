@@ -0,0 +1,4 @@
+-- Retry schedule of failed webhook events
+ALTER TABLE webhook_events ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_webhook_retry_due ON webhook_events(processingStatus, next_attempt_at);
@@ -0,0 +1,16 @@
+-- One payment transaction per AppyPay transaction, now looked up by natural ID
+
+-- Duplicates come from webhooks processed twice: keep the one synced to Odoo, else the latest
+DELETE FROM payment_transactions pt
+USING (
+    SELECT id, ROW_NUMBER() OVER (
+        PARTITION BY appypayTransactionId
+        ORDER BY (odoo_sync_status = 'SYNCED') DESC NULLS LAST, updated_date DESC, id
+    ) AS position
+    FROM payment_transactions
+) ranked
+WHERE pt.id = ranked.id AND ranked.position > 1;
+
+DROP INDEX IF EXISTS idx_payment_tx_appypay_id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_payment_tx_appypay_id ON payment_transactions(appypayTransactionId);
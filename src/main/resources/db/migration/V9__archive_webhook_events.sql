@@ -0,0 +1,31 @@
+-- Archive of processed webhook events, range-partitioned by month of received_at.
+-- The live webhook_events table stays unpartitioned: its unique appypayTransactionId,
+-- which deduplicates redeliveries, cannot be enforced across partitions.
+-- Monthly partitions are created and dropped by the retention job; payloads in them are
+-- compressed from 128 bytes on through toast_tuple_target.
+CREATE TABLE IF NOT EXISTS webhook_events_archive (
+    id UUID NOT NULL,
+    appypayTransactionId VARCHAR(100) NOT NULL,
+    merchant_transaction_id VARCHAR(100),
+    webhook_type VARCHAR(50) NOT NULL,
+    processingStatus VARCHAR(20) NOT NULL,
+    payload TEXT NOT NULL,
+    received_at TIMESTAMP NOT NULL,
+    processed_at TIMESTAMP,
+    retry_count INTEGER NOT NULL DEFAULT 0,
+    error_message TEXT,
+    created_date TIMESTAMP NOT NULL,
+    updated_date TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id, received_at)
+) PARTITION BY RANGE (received_at);
+
+CREATE TABLE IF NOT EXISTS webhook_events_archive_default PARTITION OF webhook_events_archive DEFAULT
+    WITH (toast_tuple_target = 128);
+
+CREATE INDEX IF NOT EXISTS idx_webhook_archive_appypay_tx_id ON webhook_events_archive(appypayTransactionId);
+
+-- One index serves both status lookups and the retention scan of the live table
+DROP INDEX IF EXISTS idx_webhook_status;
+DROP INDEX IF EXISTS idx_webhook_received;
+CREATE INDEX IF NOT EXISTS idx_webhook_status_received ON webhook_events(processingStatus, received_at);
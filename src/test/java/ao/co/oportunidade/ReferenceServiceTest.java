@@ -10,9 +10,13 @@ import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -38,6 +42,42 @@ public class ReferenceServiceTest {
                     .thenReturn(List.of(reference));
     }
 
+    @AfterEach
+    public void tearDown() {
+        referenceService.invalidateAll();
+    }
+
+    @Test
+    public void testGetReferenceByNumber_CachesFoundReference() {
+        when(referenceRepository.findByReferenceNumber("1234")).thenReturn(Optional.of(reference));
+
+        assertThat(referenceService.getReferenceByNumber("1234")).isSameAs(reference);
+        assertThat(referenceService.getReferenceByNumber("1234")).isSameAs(reference);
+
+        verify(referenceRepository, times(1)).findByReferenceNumber("1234");
+    }
+
+    @Test
+    public void testGetReferenceByNumber_DoesNotCacheMiss() {
+        when(referenceRepository.findByReferenceNumber("1234")).thenReturn(Optional.empty());
+
+        assertThat(referenceService.getReferenceByNumber("1234")).isNull();
+        when(referenceRepository.findByReferenceNumber("1234")).thenReturn(Optional.of(reference));
+
+        assertThat(referenceService.getReferenceByNumber("1234")).isSameAs(reference);
+    }
+
+    @Test
+    public void testSaveDomain_InvalidatesCachedReference() {
+        when(referenceRepository.findByReferenceNumber("1234")).thenReturn(Optional.of(reference));
+        referenceService.getReferenceByNumber("1234");
+
+        referenceService.saveDomain(reference);
+        referenceService.getReferenceByNumber("1234");
+
+        verify(referenceRepository, times(2)).findByReferenceNumber("1234");
+    }
+
     @Test
     public void testGetAllReferences() {
 
@@ -0,0 +1,278 @@
+package ao.co.oportunidade.order.resource;
+
+import ao.co.oportunidade.order.entity.OrderRepository;
+import ao.co.oportunidade.order.model.Order;
+import ao.co.oportunidade.order.service.OrderService;
+import ao.co.oportunidade.order.service.OrderSnapshotCache;
+import ao.co.oportunidade.order.service.OrderStatusBroadcaster;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.response.ExtractableResponse;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static solutions.envision.resource.Resource.NEXT_CURSOR_HEADER;
+
+/**
+ * Tests for keyset pagination and NDJSON streaming of orders.
+ */
+@QuarkusTest
+class OrderResourceTest {
+
+    private static final int ORDERS = 5;
+
+    @Inject
+    OrderService orderService;
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Inject
+    OrderSnapshotCache orderSnapshotCache;
+
+    @Inject
+    OrderStatusBroadcaster orderStatusBroadcaster;
+
+    private final List<String> merchantTransactionIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        final Instant base = Instant.parse("2024-01-01T00:00:00Z");
+        final List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            final String merchantTransactionId = "ORDER-PAGE-" + i;
+            merchantTransactionIds.add(merchantTransactionId);
+            orders.add(Order.builder()
+                    .id(UUID.randomUUID())
+                    .merchantTransactionId(merchantTransactionId)
+                    .amount(new BigDecimal("100.00"))
+                    .currency("AOA")
+                    .status(Order.OrderStatus.FAILED)
+                    .createdDate(base.plusSeconds(i))
+                    .updatedDate(base.plusSeconds(i))
+                    .build());
+        }
+        assertThat(orderService.saveAll(orders).hasRejections()).isFalse();
+    }
+
+    @AfterEach
+    @Transactional
+    void cleanUp() {
+        orderRepository.delete("merchantTransactionId in ?1", merchantTransactionIds);
+        orderSnapshotCache.invalidateAll();
+    }
+
+    @Test
+    void testGetAllOrders_WalksPagesInCreationOrder() {
+        final List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            final ExtractableResponse<Response> page = given()
+                    .queryParam("status", "FAILED")
+                    .queryParam("limit", 2)
+                    .queryParam("after", cursor)
+                    .when()
+                    .get("/api/v1/orders")
+                    .then()
+                    .statusCode(200)
+                    .extract();
+            seen.addAll(page.jsonPath().getList("merchantTransactionId", String.class));
+            cursor = page.header(NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(merchantTransactionIds);
+    }
+
+    @Test
+    void testGetAllOrders_InvalidCursor_ReturnsBadRequest() {
+        given()
+                .queryParam("after", "not-a-cursor")
+                .when()
+                .get("/api/v1/orders")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    void testStreamOrders_WritesOneJsonObjectPerLine() {
+        final String body = given()
+                .queryParam("status", "FAILED")
+                .when()
+                .get("/api/v1/orders/stream")
+                .then()
+                .statusCode(200)
+                .contentType("application/x-ndjson")
+                .extract()
+                .asString();
+
+        assertThat(body.lines()).hasSize(ORDERS)
+                .allSatisfy(line -> assertThat(line).startsWith("{").endsWith("}"));
+    }
+
+    @Test
+    void testGetOrderById_ReturnsOrderOrNotFound() {
+        final UUID id = orderService.findByMerchantTransactionId("ORDER-PAGE-0").orElseThrow().getId();
+
+        given()
+                .when()
+                .get("/api/v1/orders/" + id)
+                .then()
+                .statusCode(200)
+                .body("merchantTransactionId", is("ORDER-PAGE-0"));
+
+        given()
+                .when()
+                .get("/api/v1/orders/" + UUID.randomUUID())
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    void testStreamOrderStatus_SettledOrder_SendsStatusAndCompletes() {
+        final String body = given()
+                .when()
+                .get("/api/v1/orders/merchant/ORDER-PAGE-0/events")
+                .then()
+                .statusCode(200)
+                .contentType("text/event-stream")
+                .extract()
+                .asString();
+
+        final List<String> data = body.lines().filter(line -> line.startsWith("data:")).toList();
+        assertThat(data).hasSize(1);
+        assertThat(data.getFirst()).contains("\"status\":\"FAILED\"");
+    }
+
+    @Test
+    void testStreamOrderStatus_PendingOrder_PushesStatusChange() throws Exception {
+        final String merchantTransactionId = "ORDER-EVENTS-1";
+        merchantTransactionIds.add(merchantTransactionId);
+        final Order order = Order.builder()
+                .id(UUID.randomUUID())
+                .merchantTransactionId(merchantTransactionId)
+                .amount(new BigDecimal("100.00"))
+                .currency("AOA")
+                .status(Order.OrderStatus.PENDING)
+                .createdDate(Instant.now())
+                .updatedDate(Instant.now())
+                .build();
+        orderService.saveDomain(order);
+
+        final CompletableFuture<String> events = CompletableFuture.supplyAsync(() -> given()
+                .when()
+                .get("/api/v1/orders/merchant/" + merchantTransactionId + "/events")
+                .then()
+                .statusCode(200)
+                .extract()
+                .asString());
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (orderStatusBroadcaster.getSubscriberCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+
+        order.setStatus(Order.OrderStatus.PAID);
+        orderService.saveDomain(order);
+
+        final List<String> data = events.get(10, TimeUnit.SECONDS).lines()
+                .filter(line -> line.startsWith("data:"))
+                .toList();
+        assertThat(data).hasSize(2);
+        assertThat(data.get(0)).contains("\"status\":\"PENDING\"");
+        assertThat(data.get(1)).contains("\"status\":\"PAID\"");
+        assertThat(orderStatusBroadcaster.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    void testSubscribe_IdleTimeout_ReadsChangeFromAnotherInstance() {
+        // Given
+        final Order pending = Order.builder()
+                .id(UUID.randomUUID())
+                .merchantTransactionId("ORDER-EVENTS-2")
+                .status(Order.OrderStatus.PENDING)
+                .version(0L)
+                .build();
+        final Order paid = pending.toBuilder().status(Order.OrderStatus.PAID).version(1L).build();
+        final Iterator<Order> reads = List.of(pending, paid).iterator();
+
+        // When
+        final List<Order> emitted = orderStatusBroadcaster.subscribe("ORDER-EVENTS-2",
+                        () -> Optional.of(reads.next()),
+                        order -> order.getStatus() != Order.OrderStatus.PENDING,
+                        Duration.ofMillis(200))
+                .collect().asList()
+                .await().atMost(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(emitted).extracting(Order::getStatus)
+                .containsExactly(Order.OrderStatus.PENDING, Order.OrderStatus.PAID);
+        assertThat(orderStatusBroadcaster.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    void testSaveAll_StatusChange_IsPublishedToSubscribers() throws Exception {
+        // Given
+        final String merchantTransactionId = "ORDER-EVENTS-4";
+        merchantTransactionIds.add(merchantTransactionId);
+        final Order order = Order.builder()
+                .id(UUID.randomUUID())
+                .merchantTransactionId(merchantTransactionId)
+                .amount(new BigDecimal("100.00"))
+                .currency("AOA")
+                .status(Order.OrderStatus.PENDING)
+                .createdDate(Instant.now())
+                .updatedDate(Instant.now())
+                .build();
+        orderService.saveDomain(order);
+        final Order pending = order.toBuilder().build();
+        final CompletableFuture<List<Order>> emitted = orderStatusBroadcaster.subscribe(merchantTransactionId,
+                        () -> Optional.of(pending),
+                        current -> current.getStatus() != Order.OrderStatus.PENDING,
+                        Duration.ofMinutes(5))
+                .collect().asList()
+                .subscribeAsCompletionStage()
+                .toCompletableFuture();
+
+        // When
+        order.setStatus(Order.OrderStatus.PAID);
+        assertThat(orderService.saveAll(List.of(order)).hasRejections()).isFalse();
+
+        // Then
+        assertThat(emitted.get(5, TimeUnit.SECONDS)).extracting(Order::getStatus)
+                .containsExactly(Order.OrderStatus.PENDING, Order.OrderStatus.PAID);
+    }
+
+    @Test
+    void testSubscribe_NotSubscribed_RegistersNothing() {
+        // When
+        orderStatusBroadcaster.subscribe("ORDER-EVENTS-3", Optional::empty, order -> true, Duration.ofMinutes(5));
+
+        // Then
+        assertThat(orderStatusBroadcaster.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    void testStreamOrderStatus_UnknownOrder_ReturnsNotFound() {
+        given()
+                .when()
+                .get("/api/v1/orders/merchant/ORDER-UNKNOWN/events")
+                .then()
+                .statusCode(404);
+    }
+}
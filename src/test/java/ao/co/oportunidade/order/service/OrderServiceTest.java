@@ -0,0 +1,121 @@
+package ao.co.oportunidade.order.service;
+
+import ao.co.oportunidade.order.entity.OrderRepository;
+import ao.co.oportunidade.order.model.Order;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the order snapshot cache behind {@link OrderService}.
+ */
+@QuarkusTest
+class OrderServiceTest {
+
+    private static final String MERCHANT_TRANSACTION_ID = "ORDER-SNAPSHOT-1";
+
+    @Inject
+    OrderService orderService;
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Inject
+    OrderSnapshotCache orderSnapshotCache;
+
+    private UUID orderId;
+
+    @BeforeEach
+    void setUp() {
+        final Order order = Order.builder()
+                .id(UUID.randomUUID())
+                .merchantTransactionId(MERCHANT_TRANSACTION_ID)
+                .amount(new BigDecimal("100.00"))
+                .currency("AOA")
+                .status(Order.OrderStatus.PENDING)
+                .createdDate(Instant.now())
+                .updatedDate(Instant.now())
+                .build();
+        orderService.saveDomain(order);
+        orderId = order.getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        QuarkusTransaction.requiringNew().run(() ->
+                orderRepository.delete("merchantTransactionId", MERCHANT_TRANSACTION_ID));
+        orderSnapshotCache.invalidateAll();
+    }
+
+    @Test
+    void testSaveDomain_WritesThroughWithNewVersion() {
+        final Order order = orderService.findByMerchantTransactionId(MERCHANT_TRANSACTION_ID).orElseThrow();
+        final long version = order.getVersion();
+        order.setStatus(Order.OrderStatus.PAID);
+        orderService.saveDomain(order);
+
+        // Served from the cache even though the row is gone
+        QuarkusTransaction.requiringNew().run(() ->
+                orderRepository.delete("merchantTransactionId", MERCHANT_TRANSACTION_ID));
+        final Order cached = orderService.findById(orderId).orElseThrow();
+        assertThat(cached.getStatus()).isEqualTo(Order.OrderStatus.PAID);
+        assertThat(cached.getVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+    void testSaveDomain_FromCachedSnapshot_PassesVersionCheck() {
+        for (Order.OrderStatus status : new Order.OrderStatus[]{Order.OrderStatus.PAID, Order.OrderStatus.REFUNDED}) {
+            final Order order = orderService.findByMerchantTransactionId(MERCHANT_TRANSACTION_ID).orElseThrow();
+            order.setStatus(status);
+            orderService.saveDomain(order);
+        }
+
+        orderSnapshotCache.invalidateAll();
+        assertThat(orderService.findById(orderId).orElseThrow().getStatus())
+                .isEqualTo(Order.OrderStatus.REFUNDED);
+    }
+
+    @Test
+    void testFind_ReturnsCopies() {
+        orderService.findByMerchantTransactionId(MERCHANT_TRANSACTION_ID).orElseThrow()
+                .setStatus(Order.OrderStatus.CANCELLED);
+
+        assertThat(orderService.findByMerchantTransactionId(MERCHANT_TRANSACTION_ID).orElseThrow().getStatus())
+                .isEqualTo(Order.OrderStatus.PENDING);
+    }
+
+    @Test
+    void testPutIfNewer_StaleSnapshot_DoesNotOverwriteNewer() {
+        final Order stale = orderService.findById(orderId).orElseThrow();
+        final Order order = orderService.findById(orderId).orElseThrow();
+        order.setStatus(Order.OrderStatus.PAID);
+        orderService.saveDomain(order);
+
+        orderSnapshotCache.putIfNewer(stale);
+
+        assertThat(orderService.findById(orderId).orElseThrow().getStatus()).isEqualTo(Order.OrderStatus.PAID);
+    }
+
+    @Test
+    void testSaveDomain_RolledBack_EvictsSnapshot() {
+        assertThatThrownBy(() -> QuarkusTransaction.requiringNew().run(() -> {
+            final Order order = orderService.findById(orderId).orElseThrow();
+            order.setStatus(Order.OrderStatus.FAILED);
+            orderService.saveDomain(order);
+            throw new IllegalStateException("rollback");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(orderSnapshotCache.getById(orderId)).isEmpty();
+        assertThat(orderService.findById(orderId).orElseThrow().getStatus()).isEqualTo(Order.OrderStatus.PENDING);
+    }
+}
@@ -0,0 +1,137 @@
+package ao.co.oportunidade.payment.service;
+
+import ao.co.oportunidade.payment.model.PaymentTransaction;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import solutions.envision.entity.BatchSaveResult;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the batched bulk save and the lookups of PaymentTransactionService.
+ */
+@QuarkusTest
+public class PaymentTransactionServiceTest {
+
+    @Inject
+    PaymentTransactionService paymentTransactionService;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Test
+    void testSaveAll_ReportsOutcomePerRow() {
+        // Given
+        final UUID orderId = UUID.randomUUID();
+        final List<PaymentTransaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            transactions.add(transaction(orderId, "bulk-" + orderId + "-" + i));
+        }
+        final PaymentTransaction withoutId = transaction(orderId, "bulk-" + orderId + "-invalid");
+        withoutId.setId(null);
+        transactions.add(withoutId);
+
+        // When
+        final BatchSaveResult<PaymentTransaction> result = paymentTransactionService.saveAll(transactions);
+
+        // Then
+        assertThat(result.getRows()).hasSize(121);
+        assertThat(result.count(BatchSaveResult.Outcome.PERSISTED)).isEqualTo(120);
+        assertThat(result.count(BatchSaveResult.Outcome.REJECTED)).isEqualTo(1);
+        assertThat(paymentTransactionService.findByOrderId(orderId)).hasSize(120);
+    }
+
+    @Test
+    void testSaveAll_ConstraintViolationRollsBackWholeBatch() {
+        // Given
+        final UUID orderId = UUID.randomUUID();
+        final PaymentTransaction first = transaction(orderId, "dup-" + orderId);
+        final PaymentTransaction duplicate = transaction(orderId, "dup-" + orderId);
+
+        // When / Then
+        assertThatThrownBy(() -> paymentTransactionService.saveAll(List.of(first, duplicate)))
+                .isInstanceOf(RuntimeException.class);
+        assertThat(paymentTransactionService.findByOrderId(orderId)).isEmpty();
+    }
+
+    @Test
+    void testSaveDomain_SavingTwiceMergesTheSameRow() {
+        // Given
+        final UUID orderId = UUID.randomUUID();
+        final PaymentTransaction transaction = transaction(orderId, "twice-" + orderId);
+
+        // When
+        QuarkusTransaction.requiringNew().run(() -> {
+            paymentTransactionService.saveDomain(transaction);
+            transaction.setErrorMessage("updated");
+            paymentTransactionService.saveDomain(transaction);
+        });
+
+        // Then
+        assertThat(transaction.getVersion()).isNotNull();
+        assertThat(paymentTransactionService.findByOrderId(orderId))
+                .extracting(PaymentTransaction::getErrorMessage)
+                .containsExactly("updated");
+    }
+
+    @Test
+    void testSaveDomain_SavingAgainInAnotherTransactionWithoutReread() {
+        // Given
+        final UUID orderId = UUID.randomUUID();
+        final PaymentTransaction transaction = transaction(orderId, "again-" + orderId);
+        QuarkusTransaction.requiringNew().run(() -> paymentTransactionService.saveDomain(transaction));
+
+        // When
+        for (String message : List.of("first", "second")) {
+            transaction.setErrorMessage(message);
+            QuarkusTransaction.requiringNew().run(() -> paymentTransactionService.saveDomain(transaction));
+        }
+
+        // Then
+        assertThat(transaction.getVersion()).isEqualTo(2L);
+        assertThat(paymentTransactionService.findByOrderId(orderId))
+                .extracting(PaymentTransaction::getErrorMessage)
+                .containsExactly("second");
+    }
+
+    @Test
+    void testFindByAppyPayTransactionId_ResolvesNaturalIdFromCache() {
+        // Given
+        final PaymentTransaction transaction = transaction(UUID.randomUUID(), "natural-" + UUID.randomUUID());
+        paymentTransactionService.saveAll(List.of(transaction));
+        final long hits = sessionFactory.getStatistics().getNaturalIdCacheHitCount();
+
+        // When
+        final var found = paymentTransactionService.findByAppyPayTransactionId(transaction.getAppypayTransactionId());
+
+        // Then
+        assertThat(found).isPresent();
+        assertThat(found.get().getId()).isEqualTo(transaction.getId());
+        assertThat(sessionFactory.getStatistics().getNaturalIdCacheHitCount()).isGreaterThan(hits);
+        assertThat(paymentTransactionService.findByAppyPayTransactionId("natural-missing")).isEmpty();
+    }
+
+    private PaymentTransaction transaction(UUID orderId, String appypayTransactionId) {
+        final PaymentTransaction transaction = new PaymentTransaction();
+        transaction.setId(UUID.randomUUID());
+        transaction.setOrderId(orderId);
+        transaction.setAppypayTransactionId(appypayTransactionId);
+        transaction.setAmount(new BigDecimal("1500.00"));
+        transaction.setCurrency("AOA");
+        transaction.setStatus(PaymentTransaction.TransactionStatus.SUCCESS);
+        transaction.setTransactionDate(Instant.now());
+        transaction.setCreatedDate(Instant.now());
+        transaction.setUpdatedDate(Instant.now());
+        return transaction;
+    }
+}
@@ -0,0 +1,54 @@
+package ao.co.oportunidade.webhook.health;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the webhook lifecycle metrics.
+ */
+@QuarkusTest
+class WebhookMetricsTest {
+
+    @Inject
+    MeterRegistry registry;
+
+    @Test
+    void testReceiveWebhook_MalformedPayload_RecordsStageAndOutcome() {
+        // Given
+        final double rejectedBefore = rejectedCount();
+
+        // When
+        given()
+                .contentType(ContentType.JSON)
+                .body("not json")
+                .when()
+                .post("/webhooks/appypay")
+                .then()
+                .statusCode(400);
+
+        // Then
+        assertThat(rejectedCount()).isEqualTo(rejectedBefore + 1);
+        assertThat(registry.find("webhook.stage.duration")
+                .tags("stage", "receive", "outcome", WebhookMetrics.OUTCOME_ERROR)
+                .timer())
+                .isNotNull()
+                .satisfies(timer -> assertThat(timer.count()).isPositive());
+    }
+
+    @Test
+    void testHealthGauges_RegisteredAtStartup() {
+        assertThat(registry.find("health.database").gauge()).isNotNull();
+        assertThat(registry.find("webhook.processing.pending").gauge()).isNotNull();
+    }
+
+    private double rejectedCount() {
+        final var counter = registry.find("webhook.events").tag("outcome", "rejected").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
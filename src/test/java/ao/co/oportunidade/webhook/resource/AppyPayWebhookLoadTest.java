@@ -0,0 +1,150 @@
+package ao.co.oportunidade.webhook.resource;
+
+import ao.co.oportunidade.order.model.Order;
+import ao.co.oportunidade.order.service.OrderService;
+import ao.co.oportunidade.webhook.WebhookEvent;
+import ao.co.oportunidade.webhook.WebhookEventRepository;
+import ao.co.oportunidade.webhook.dto.AppyPayWebhookPayload;
+import ao.co.oportunidade.webhook.test.OdooWireMockResource;
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static ao.co.oportunidade.webhook.test.WebhookPayloadBuilder.createCustomPayload;
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test measuring webhooks/s end to end with Odoo latency injected via WireMock,
+ * through the blocking ingest path; {@link AppyPayWebhookReactiveLoadTest} runs the same
+ * load through the reactive one.
+ * Excluded from the default build, run with {@code mvn test -Pload-test}.
+ * Tunable with {@code -Dload.webhooks}, {@code -Dload.odoo-latency-ms} and
+ * {@code -Dload.virtual-threads}. {@code -Dload.db=host:port/database} runs against
+ * PostgreSQL instead of H2, which the reactive test requires and the comparison needs.
+ */
+@Tag("load")
+@QuarkusTest
+@TestProfile(AppyPayWebhookLoadTest.LoadTestProfile.class)
+@WithTestResource(OdooWireMockResource.class)
+public class AppyPayWebhookLoadTest {
+
+    private static final Logger LOG = Logger.getLogger(AppyPayWebhookLoadTest.class);
+    private static final Duration TIMEOUT = Duration.ofMinutes(5);
+
+    @Inject
+    WebhookEventRepository webhookEventRepository;
+
+    @Inject
+    OrderService orderService;
+
+    @ConfigProperty(name = "webhook.ingest.reactive")
+    boolean reactiveIngest;
+
+    public static class LoadTestProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            final Map<String, String> overrides = new HashMap<>(Map.of(
+                    "quarkus.virtual-threads.enabled", System.getProperty("load.virtual-threads", "true"),
+                    "quarkus.datasource.jdbc.max-size", "40",
+                    "webhook.processing.lanes", "32",
+                    "webhook.outbox.poll-interval", "100ms",
+                    "quarkus.hibernate-orm.log.sql", "false"
+            ));
+            final String database = System.getProperty("load.db");
+            if (database != null) {
+                overrides.putAll(postgres(database));
+            }
+            return overrides;
+        }
+
+        static Map<String, String> postgres(String database) {
+            return Map.of(
+                    "quarkus.datasource.db-kind", "postgresql",
+                    "quarkus.datasource.username", System.getProperty("load.db-username", "postgres"),
+                    "quarkus.datasource.password", System.getProperty("load.db-password", "postgres"),
+                    "quarkus.datasource.jdbc.url", "jdbc:postgresql://" + database,
+                    "quarkus.datasource.reactive", "true",
+                    "quarkus.datasource.reactive.url", "postgresql://" + database
+            );
+        }
+    }
+
+    @Test
+    void measureWebhookThroughput() throws InterruptedException {
+        // Given
+        final int webhooks = Integer.getInteger("load.webhooks", 200);
+        final String run = UUID.randomUUID().toString().substring(0, 8);
+        createOrders(run, webhooks);
+        final long start = System.nanoTime();
+
+        // When
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < webhooks; i++) {
+                final AppyPayWebhookPayload payload = createCustomPayload(
+                        "load-" + run + "-" + i, "ORDER-" + run + "-" + i, new BigDecimal("1500.00"), "Success");
+                payload.setReference(null);
+                clients.submit(() -> given()
+                        .contentType(ContentType.JSON)
+                        .body(payload)
+                        .when()
+                        .post("/webhooks/appypay")
+                        .then()
+                        .statusCode(200));
+            }
+        }
+
+        long processed = countProcessed(run);
+        while (processed < webhooks && System.nanoTime() - start < TIMEOUT.toNanos()) {
+            Thread.sleep(100);
+            processed = countProcessed(run);
+        }
+        final double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        // Then
+        LOG.infof("Processed %d/%d webhooks in %.2f s: %.1f webhooks/s (%s ingest, Odoo latency %d ms, virtual threads %s)",
+                processed, webhooks, seconds, processed / seconds, reactiveIngest ? "reactive" : "blocking",
+                Integer.getInteger("load.odoo-latency-ms", 200), System.getProperty("load.virtual-threads", "true"));
+        assertThat(processed).isEqualTo(webhooks);
+    }
+
+    private void createOrders(String run, int count) {
+        final List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            orders.add(Order.builder()
+                    .id(UUID.randomUUID())
+                    .merchantTransactionId("ORDER-" + run + "-" + i)
+                    .amount(new BigDecimal("1500.00"))
+                    .currency("AOA")
+                    .status(Order.OrderStatus.PENDING)
+                    .createdDate(Instant.now())
+                    .updatedDate(Instant.now())
+                    .build());
+        }
+        assertThat(orderService.saveAll(orders).hasRejections()).isFalse();
+    }
+
+    private long countProcessed(String run) {
+        return webhookEventRepository.count("processingStatus = ?1 and appypayTransactionId like ?2",
+                WebhookEvent.ProcessingStatus.PROCESSED.name(), "load-" + run + "-%");
+    }
+}
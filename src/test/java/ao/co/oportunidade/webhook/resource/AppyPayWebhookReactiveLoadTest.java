@@ -0,0 +1,33 @@
+package ao.co.oportunidade.webhook.resource;
+
+import ao.co.oportunidade.webhook.test.OdooWireMockResource;
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.Tag;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link AppyPayWebhookLoadTest} through the reactive ingest path, for comparison with the
+ * blocking one. Always runs against PostgreSQL, {@code localhost:5432/odoo_payments} unless
+ * {@code -Dload.db} is set; run both with the same {@code -Dload.db} to compare.
+ */
+@Tag("load")
+@QuarkusTest
+@TestProfile(AppyPayWebhookReactiveLoadTest.ReactiveLoadTestProfile.class)
+@WithTestResource(OdooWireMockResource.class)
+public class AppyPayWebhookReactiveLoadTest extends AppyPayWebhookLoadTest {
+
+    public static class ReactiveLoadTestProfile extends LoadTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            final Map<String, String> overrides = new HashMap<>(super.getConfigOverrides());
+            overrides.putAll(postgres(System.getProperty("load.db", "localhost:5432/odoo_payments")));
+            overrides.put("webhook.ingest.reactive", "true");
+            return overrides;
+        }
+    }
+}
@@ -2,12 +2,14 @@ package ao.co.oportunidade.webhook.resource;
 
 import ao.co.oportunidade.order.entity.OrderRepository;
 import ao.co.oportunidade.order.model.Order;
+import ao.co.oportunidade.order.service.OrderSnapshotCache;
 import ao.co.oportunidade.payment.entity.PaymentTransactionRepository;
 import ao.co.oportunidade.payment.model.PaymentTransaction;
 import ao.co.oportunidade.webhook.*;
 import ao.co.oportunidade.webhook.dto.AppyPayWebhookPayload;
 import ao.co.oportunidade.webhook.dto.CustomerInfo;
 import ao.co.oportunidade.webhook.dto.ReferenceInfo;
+import ao.co.oportunidade.webhook.service.WebhookIdempotencyCache;
 import ao.co.oportunidade.payment.entity.PaymentTransactionEntity;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
@@ -18,6 +20,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Currency;
 import java.util.List;
@@ -43,6 +46,7 @@ class AppyPayWebhookResourceIT {
     public static final String CUSTOMER_NAME = "Test Customer";
     public static final String CUSTOMER_EMAIL = "test@example.com";
     public static final String APPYPAY_TRANSACTION_ID = "test-tx-123";
+    public static final String SEED_APPYPAY_TRANSACTION_ID = "test-tx-seed";
     public static final String REFERENCE = "987654321";
 
     @Inject
@@ -54,13 +58,19 @@ class AppyPayWebhookResourceIT {
     @Inject
     PaymentTransactionRepository paymentTransactionRepository;
 
+    @Inject
+    WebhookIdempotencyCache webhookIdempotencyCache;
+
+    @Inject
+    OrderSnapshotCache orderSnapshotCache;
+
     @BeforeEach
     @Transactional
     void setUp() {
         final Order order = createOrder();
         orderRepository.save(order);
         // Usage:
-        final PaymentTransactionEntity paymentTransaction = createTransaction(APPYPAY_TRANSACTION_ID,
+        final PaymentTransactionEntity paymentTransaction = createTransaction(SEED_APPYPAY_TRANSACTION_ID,
                 PaymentTransaction.TransactionStatus.SUCCESS,
                 REFERENCE,
                 Double.valueOf(AMOUNT),
@@ -105,6 +115,8 @@ class AppyPayWebhookResourceIT {
         paymentTransactionRepository.deleteAll();
         orderRepository.deleteAll();
         webhookEventRepository.deleteAll();
+        webhookIdempotencyCache.invalidateAll();
+        orderSnapshotCache.invalidateAll();
     }
 
     @Test
@@ -154,6 +166,129 @@ class AppyPayWebhookResourceIT {
         assertThat(event.getWebhookType()).isEqualTo("Charge");
     }
 
+    @Test
+    void testReceiveWebhook_StoresRawPayload() {
+        // Given
+        final String body = "{\"id\":\"raw-tx-1\", \"merchantTransactionId\":\"ORDER-RAW-1\","
+                + " \"type\":\"Charge\", \"status\":\"Pending\", \"amount\":1500.00}";
+
+        // When
+        given()
+                .contentType(ContentType.JSON)
+                .body(body)
+                .when()
+                .post("/webhooks/appypay")
+                .then()
+                .statusCode(200);
+
+        // Then
+        assertThat(webhookEventRepository.findByAppyPayTransactionId("raw-tx-1"))
+                .hasValueSatisfying(event -> assertThat(event.getPayload().json()).isEqualTo(body));
+    }
+
+    @Test
+    void testReceiveWebhook_RedeliveryNotCached_DetectedOnInsert() {
+        // Given
+        final String body = "{\"id\":\"dup-tx-1\", \"type\":\"Charge\", \"status\":\"Pending\"}";
+        given()
+                .contentType(ContentType.JSON)
+                .body(body)
+                .when()
+                .post("/webhooks/appypay")
+                .then()
+                .statusCode(200)
+                .body("status", is("received"));
+        webhookIdempotencyCache.invalidateAll();
+
+        // When/Then
+        given()
+                .contentType(ContentType.JSON)
+                .body(body)
+                .when()
+                .post("/webhooks/appypay")
+                .then()
+                .statusCode(200)
+                .body("status", is("already_processed"))
+                .body("eventId", is("dup-tx-1"));
+    }
+
+    @Test
+    void testReceiveWebhook_MalformedPayload_ReturnsBadRequest() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"id\": ")
+                .when()
+                .post("/webhooks/appypay")
+                .then()
+                .statusCode(400)
+                .body("status", is("error"));
+    }
+
+    @Test
+    void testReceiveBatch_JsonArray_ReturnsPerItemResults() {
+        // Given - a new event, a malformed item and a duplicate of the first event
+        final String body = "[{\"id\":\"batch-tx-1\", \"merchantTransactionId\":\"ORDER-BATCH-1\","
+                + " \"type\":\"Charge\", \"status\":\"Pending\"},"
+                + " {\"id\":\"batch-tx-2\", \"amount\":\"not-a-number\"},"
+                + " {\"id\":\"batch-tx-1\", \"merchantTransactionId\":\"ORDER-BATCH-1\","
+                + " \"type\":\"Charge\", \"status\":\"Pending\"}]";
+
+        // When/Then
+        given()
+                .contentType(ContentType.JSON)
+                .body(body)
+                .when()
+                .post("/webhooks/appypay/batch")
+                .then()
+                .statusCode(200)
+                .body("size()", is(3))
+                .body("[0].status", is("received"))
+                .body("[1].status", is("error"))
+                .body("[2].status", is("already_received"));
+
+        assertThat(webhookEventRepository.findByAppyPayTransactionId("batch-tx-1"))
+                .hasValueSatisfying(event -> assertThat(event.getMerchantTransactionId()).isEqualTo("ORDER-BATCH-1"));
+    }
+
+    @Test
+    void testReceiveBatch_Ndjson_SkipsKnownEvents() {
+        // Given
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"id\":\"batch-tx-3\", \"type\":\"Charge\", \"status\":\"Pending\"}")
+                .when()
+                .post("/webhooks/appypay")
+                .then()
+                .statusCode(200);
+        final String body = "{\"id\":\"batch-tx-3\", \"type\":\"Charge\", \"status\":\"Pending\"}\n"
+                + "{\"id\":\"batch-tx-4\", \"type\":\"Charge\", \"status\":\"Pending\"}\n";
+
+        // When/Then
+        given()
+                .contentType("application/x-ndjson")
+                .body(body.getBytes(StandardCharsets.UTF_8))
+                .when()
+                .post("/webhooks/appypay/batch")
+                .then()
+                .statusCode(200)
+                .body("[0].eventId", is("batch-tx-3"))
+                .body("[1].status", is("received"));
+
+        assertThat(webhookEventRepository.findByAppyPayTransactionId("batch-tx-4")).isPresent();
+    }
+
+    @Test
+    void testReceiveBatch_MalformedBody_ReturnsBadRequest() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("[{\"id\": ")
+                .when()
+                .post("/webhooks/appypay/batch")
+                .then()
+                .statusCode(400)
+                .body("status", is("error"));
+    }
+
     @Test
     @Transactional
     void testReceiveWebhook_CreatesOrderAndTransaction() throws InterruptedException {
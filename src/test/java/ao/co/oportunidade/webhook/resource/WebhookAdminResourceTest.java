@@ -0,0 +1,161 @@
+package ao.co.oportunidade.webhook.resource;
+
+import ao.co.oportunidade.order.entity.OrderRepository;
+import ao.co.oportunidade.order.model.Order;
+import ao.co.oportunidade.order.service.OrderService;
+import ao.co.oportunidade.order.service.OrderSnapshotCache;
+import ao.co.oportunidade.payment.entity.PaymentTransactionRepository;
+import ao.co.oportunidade.webhook.WebhookEvent;
+import ao.co.oportunidade.webhook.WebhookEventRepository;
+import ao.co.oportunidade.webhook.WebhookEventService;
+import ao.co.oportunidade.webhook.WebhookPayload;
+import ao.co.oportunidade.webhook.dto.AppyPayWebhookPayload;
+import ao.co.oportunidade.webhook.service.WebhookIdempotencyCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static ao.co.oportunidade.webhook.test.WebhookPayloadBuilder.createCustomPayload;
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * Tests for listing and replaying dead-lettered webhook events.
+ */
+@QuarkusTest
+class WebhookAdminResourceTest {
+
+    private static final String TRANSACTION_ID = "dead-letter-tx-1";
+    private static final String MERCHANT_TRANSACTION_ID = "ORDER-DEAD-LETTER-1";
+
+    @Inject
+    WebhookEventService webhookEventService;
+
+    @Inject
+    WebhookEventRepository webhookEventRepository;
+
+    @Inject
+    OrderService orderService;
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Inject
+    PaymentTransactionRepository paymentTransactionRepository;
+
+    @Inject
+    WebhookIdempotencyCache webhookIdempotencyCache;
+
+    @Inject
+    OrderSnapshotCache orderSnapshotCache;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() throws JsonProcessingException {
+        final AppyPayWebhookPayload payload = createCustomPayload(
+                TRANSACTION_ID, MERCHANT_TRANSACTION_ID, new BigDecimal("1500.00"), "Success");
+        payload.setReference(null);
+        final String rawPayload = objectMapper.writeValueAsString(payload);
+        orderService.saveAll(List.of(Order.builder()
+                .id(UUID.randomUUID())
+                .merchantTransactionId(MERCHANT_TRANSACTION_ID)
+                .amount(new BigDecimal("1500.00"))
+                .currency("AOA")
+                .status(Order.OrderStatus.PENDING)
+                .createdDate(Instant.now())
+                .updatedDate(Instant.now())
+                .build()));
+        QuarkusTransaction.requiringNew().run(() -> webhookEventService.saveDomain(WebhookEvent.builder()
+                .id(UUID.randomUUID())
+                .appypayTransactionId(TRANSACTION_ID)
+                .merchantTransactionId(MERCHANT_TRANSACTION_ID)
+                .webhookType("Charge")
+                .processingStatus(WebhookEvent.ProcessingStatus.DEAD_LETTER)
+                .payload(WebhookPayload.of(rawPayload))
+                .retryCount(4)
+                .receivedAt(Instant.now())
+                .createdDate(Instant.now())
+                .updatedDate(Instant.now())
+                .build()));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            paymentTransactionRepository.delete("appypayTransactionId", TRANSACTION_ID);
+            orderRepository.delete("merchantTransactionId", MERCHANT_TRANSACTION_ID);
+            webhookEventRepository.delete("appypayTransactionId", TRANSACTION_ID);
+        });
+        webhookIdempotencyCache.invalidateAll();
+        orderSnapshotCache.invalidateAll();
+    }
+
+    @Test
+    void testGetFailedEvents_ListsDeadLetters() {
+        given()
+                .queryParam("status", "DEAD_LETTER")
+                .queryParam("type", "Charge")
+                .when()
+                .get("/api/v1/admin/webhooks")
+                .then()
+                .statusCode(200)
+                .body("appypayTransactionId", hasItem(TRANSACTION_ID));
+    }
+
+    @Test
+    void testReplay_ProcessesDeadLetter() throws InterruptedException {
+        // When
+        final String jobId = given()
+                .contentType(ContentType.JSON)
+                .body(Map.of("appypayTransactionIds", List.of(TRANSACTION_ID), "ratePerSecond", 10))
+                .when()
+                .post("/api/v1/admin/webhooks/replay")
+                .then()
+                .statusCode(202)
+                .extract()
+                .path("jobId");
+
+        String state = "RUNNING";
+        for (int i = 0; i < 100 && state.equals("RUNNING"); i++) {
+            Thread.sleep(100);
+            state = given().when().get("/api/v1/admin/webhooks/replay/" + jobId).then().extract().path("state");
+        }
+
+        // Then
+        given()
+                .when()
+                .get("/api/v1/admin/webhooks/replay/" + jobId)
+                .then()
+                .statusCode(200)
+                .body("state", is("COMPLETED"))
+                .body("succeeded", is(1));
+        assertThat(webhookEventRepository.findByAppyPayTransactionId(TRANSACTION_ID))
+                .hasValueSatisfying(event ->
+                        assertThat(event.getProcessingStatus()).isEqualTo(WebhookEvent.ProcessingStatus.PROCESSED));
+    }
+
+    @Test
+    void testReplay_UnknownJob_ReturnsNotFound() {
+        given()
+                .when()
+                .get("/api/v1/admin/webhooks/replay/" + UUID.randomUUID())
+                .then()
+                .statusCode(404);
+    }
+}
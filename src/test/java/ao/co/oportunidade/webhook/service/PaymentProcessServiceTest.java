@@ -25,6 +25,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 /**
@@ -188,6 +189,33 @@ class PaymentProcessServiceTest {
         assertThat(capturedTx.getReferenceNumber()).isEqualTo("123456789");
     }
 
+    @Test
+    void testProcessWebhook_ProcessedAgain_UpdatesExistingTransaction() {
+        final Order order = new Order();
+        order.setId(ORDER_ID);
+        order.setMerchantTransactionId("ORDER-12345");
+        order.setStatus(Order.OrderStatus.PAID);
+        when(orderService.find(successPayload)).thenReturn(order);
+
+        final PaymentTransaction stored = new PaymentTransaction();
+        final UUID storedId = UUID.randomUUID();
+        stored.setId(storedId);
+        stored.setAppypayTransactionId("tx-success-123");
+        stored.setStatus(PaymentTransaction.TransactionStatus.SUCCESS);
+        stored.setOdooSyncStatus(PaymentTransaction.OdooSyncStatus.SYNCED);
+        when(paymentTransactionService.findByAppyPayTransactionId("tx-success-123"))
+                .thenReturn(Optional.of(stored));
+
+        // When - the same webhook is processed a second time
+        paymentProcessService.processWebhook(successPayload);
+
+        // Then - the stored transaction is updated in place and not queued for Odoo again
+        final ArgumentCaptor<PaymentTransaction> txCaptor = ArgumentCaptor.forClass(PaymentTransaction.class);
+        verify(paymentTransactionService).saveDomain(txCaptor.capture());
+        assertThat(txCaptor.getValue().getId()).isEqualTo(storedId);
+        assertThat(txCaptor.getValue().getOdooSyncStatus()).isEqualTo(PaymentTransaction.OdooSyncStatus.SYNCED);
+    }
+
     @Test
     void testProcessWebhook_Pending_CreatesOrderWithPendingStatus() {
 
@@ -279,4 +307,21 @@ class PaymentProcessServiceTest {
         assertThat(capturedOrder.getReferenceId()).isEqualTo(reference.getId());
     }
 
+    @Test
+    void testProcessWebhook_UnknownStatus_Fails() {
+        final AppyPayWebhookPayload unknownPayload = AppyPayWebhookPayload.builder()
+                .id("tx-unknown-000")
+                .merchantTransactionId("ORDER-12345")
+                .type("Charge")
+                .amount(new BigDecimal("1500.00"))
+                .currency("AOA")
+                .status("Refunded")
+                .build();
+
+        assertThatThrownBy(() -> paymentProcessService.processWebhook(unknownPayload))
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        verify(orderService, never()).saveDomain(any());
+        verify(paymentTransactionService, never()).saveDomain(any());
+    }
+
 }
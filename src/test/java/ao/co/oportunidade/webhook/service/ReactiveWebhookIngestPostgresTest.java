@@ -0,0 +1,95 @@
+package ao.co.oportunidade.webhook.service;
+
+import ao.co.oportunidade.webhook.WebhookEvent;
+import ao.co.oportunidade.webhook.WebhookEventRepository;
+import ao.co.oportunidade.webhook.dto.AppyPayWebhookPayload;
+import ao.co.oportunidade.webhook.entity.WebhookOutboxEntity;
+import ao.co.oportunidade.webhook.entity.WebhookOutboxRepository;
+import ao.co.oportunidade.webhook.test.PostgresTestProfile;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the reactive webhook ingest against the schema the entities map.
+ */
+@Tag("postgres")
+@QuarkusTest
+@TestProfile(PostgresTestProfile.class)
+class ReactiveWebhookIngestPostgresTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Inject
+    ReactiveWebhookIngestService reactiveIngestService;
+
+    @Inject
+    WebhookEventRepository webhookEventRepository;
+
+    @Inject
+    WebhookOutboxRepository webhookOutboxRepository;
+
+    @Test
+    void testCreateWebhookEvent_StoresEventAndOutboxRow() {
+        // Given
+        final String transactionId = "reactive-tx-" + UUID.randomUUID();
+        final String rawPayload = "{\"id\":\"" + transactionId + "\",\"status\":\"Success\"}";
+
+        // When
+        final Optional<UUID> created = reactiveIngestService.createWebhookEvent(payload(transactionId), rawPayload)
+                .await().atMost(TIMEOUT);
+
+        // Then
+        assertThat(created).isPresent();
+        final WebhookEvent event = webhookEventRepository.findByAppyPayTransactionId(transactionId).orElseThrow();
+        assertThat(event.getId()).isEqualTo(created.get());
+        assertThat(event.getMerchantTransactionId()).isEqualTo("ORDER-REACTIVE-1");
+        assertThat(event.getProcessingStatus()).isEqualTo(WebhookEvent.ProcessingStatus.RECEIVED);
+        assertThat(event.getRetryCount()).isZero();
+        assertThat(event.getPayload().json()).isEqualTo(rawPayload);
+        assertThat(outboxRows(transactionId)).extracting(WebhookOutboxEntity::getWebhookEventId)
+                .containsExactly(created.get());
+    }
+
+    @Test
+    void testCreateWebhookEvent_Duplicate_IsSkipped() {
+        // Given
+        final String transactionId = "reactive-tx-" + UUID.randomUUID();
+        final String rawPayload = "{\"id\":\"" + transactionId + "\"}";
+        final Optional<UUID> first = reactiveIngestService.createWebhookEvent(payload(transactionId), rawPayload)
+                .await().atMost(TIMEOUT);
+
+        // When
+        final Optional<UUID> second = reactiveIngestService.createWebhookEvent(payload(transactionId), rawPayload)
+                .await().atMost(TIMEOUT);
+
+        // Then
+        assertThat(first).isPresent();
+        assertThat(second).isEmpty();
+        assertThat(outboxRows(transactionId)).hasSize(1);
+    }
+
+    private List<WebhookOutboxEntity> outboxRows(String transactionId) {
+        return QuarkusTransaction.requiringNew().call(() ->
+                webhookOutboxRepository.list("appypayTransactionId", transactionId));
+    }
+
+    private static AppyPayWebhookPayload payload(String transactionId) {
+        return AppyPayWebhookPayload.builder()
+                .id(transactionId)
+                .merchantTransactionId("ORDER-REACTIVE-1")
+                .type("Charge")
+                .status("Success")
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package ao.co.oportunidade.webhook.service;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for per-order ordering of the webhook dispatcher lanes.
+ */
+@QuarkusTest
+class WebhookDispatcherTest {
+
+    private static final int EVENTS = 50;
+
+    @Inject
+    WebhookDispatcher dispatcher;
+
+    @Test
+    void testDispatch_SameKey_RunsSeriallyInSubmissionOrder() throws InterruptedException {
+        // Given
+        final List<Integer> executed = new CopyOnWriteArrayList<>();
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(EVENTS);
+
+        // When
+        for (int i = 0; i < EVENTS; i++) {
+            final int sequence = i;
+            dispatcher.dispatch("ORDER-LANE-1", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                executed.add(sequence);
+                running.decrementAndGet();
+                done.countDown();
+            }, () -> {
+            });
+        }
+
+        // Then
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isEqualTo(1);
+        assertThat(executed).isSorted().hasSize(EVENTS);
+    }
+
+    @Test
+    void testDispatch_DifferentKeys_RunInParallel() throws InterruptedException {
+        // Given
+        final String first = "ORDER-LANE-1";
+        String second = "ORDER-LANE-2";
+        for (int i = 3; dispatcher.laneOf(second) == dispatcher.laneOf(first); i++) {
+            second = "ORDER-LANE-" + i;
+        }
+        final CountDownLatch bothStarted = new CountDownLatch(2);
+
+        // When
+        dispatcher.dispatch(first, () -> awaitQuietly(bothStarted), () -> {
+        });
+        dispatcher.dispatch(second, () -> awaitQuietly(bothStarted), () -> {
+        });
+
+        // Then
+        assertThat(bothStarted.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
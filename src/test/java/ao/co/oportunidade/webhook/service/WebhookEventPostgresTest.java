@@ -0,0 +1,97 @@
+package ao.co.oportunidade.webhook.service;
+
+import ao.co.oportunidade.webhook.WebhookEvent;
+import ao.co.oportunidade.webhook.WebhookEventRepository;
+import ao.co.oportunidade.webhook.WebhookEventService;
+import ao.co.oportunidade.webhook.WebhookPayload;
+import ao.co.oportunidade.webhook.dto.AppyPayWebhookPayload;
+import ao.co.oportunidade.webhook.dto.WebhookBatchItem;
+import ao.co.oportunidade.webhook.dto.WebhookResponse;
+import ao.co.oportunidade.webhook.test.PostgresTestProfile;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the conflict-safe webhook event insert on PostgreSQL, where it runs as
+ * {@code ON CONFLICT DO NOTHING}.
+ */
+@Tag("postgres")
+@QuarkusTest
+@TestProfile(PostgresTestProfile.class)
+class WebhookEventPostgresTest {
+
+    @Inject
+    WebhookEventService webhookEventService;
+
+    @Inject
+    WebhookEventServiceFacade webhookEventServiceFacade;
+
+    @Inject
+    WebhookEventRepository webhookEventRepository;
+
+    @Test
+    void testInsertIfAbsent_Duplicate_LeavesRowUntouched() {
+        // Given
+        final String transactionId = "pg-tx-" + UUID.randomUUID();
+
+        // When
+        final boolean first = QuarkusTransaction.requiringNew().call(() ->
+                webhookEventService.insertIfAbsent(newEvent(transactionId)));
+        final boolean second = QuarkusTransaction.requiringNew().call(() ->
+                webhookEventService.insertIfAbsent(newEvent(transactionId)));
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        final WebhookEvent stored = webhookEventRepository.findByAppyPayTransactionId(transactionId).orElseThrow();
+        assertThat(stored.getVersion()).isZero();
+        assertThat(stored.getPayload().json()).isEqualTo("{\"id\":\"" + transactionId + "\"}");
+    }
+
+    @Test
+    void testCreateWebhookEvents_KnownAndRepeatedEvents_AreDuplicates() {
+        // Given
+        final String known = "pg-tx-" + UUID.randomUUID();
+        final String fresh = "pg-tx-" + UUID.randomUUID();
+        QuarkusTransaction.requiringNew().run(() -> webhookEventService.insertIfAbsent(newEvent(known)));
+
+        // When
+        final List<WebhookResponse> results = webhookEventServiceFacade.createWebhookEvents(List.of(
+                item(fresh), item(known), item(fresh)));
+
+        // Then
+        assertThat(results).extracting(WebhookResponse::getStatus)
+                .containsExactly("received", "already_received", "already_received");
+        assertThat(webhookEventRepository.findByAppyPayTransactionId(fresh)).isPresent();
+    }
+
+    private static WebhookEvent newEvent(String transactionId) {
+        final Instant now = Instant.now();
+        return WebhookEvent.builder()
+                .id(UUID.randomUUID())
+                .appypayTransactionId(transactionId)
+                .webhookType("Charge")
+                .processingStatus(WebhookEvent.ProcessingStatus.RECEIVED)
+                .payload(WebhookPayload.of("{\"id\":\"" + transactionId + "\"}"))
+                .receivedAt(now)
+                .retryCount(0)
+                .createdDate(now)
+                .updatedDate(now)
+                .build();
+    }
+
+    private static WebhookBatchItem item(String transactionId) {
+        return new WebhookBatchItem(AppyPayWebhookPayload.builder().id(transactionId).type("Charge").build(),
+                "{\"id\":\"" + transactionId + "\"}");
+    }
+}
@@ -0,0 +1,212 @@
+package ao.co.oportunidade.webhook.service;
+
+import ao.co.oportunidade.webhook.WebhookEvent;
+import ao.co.oportunidade.webhook.WebhookEventRepository;
+import ao.co.oportunidade.webhook.WebhookEventService;
+import ao.co.oportunidade.webhook.WebhookPayload;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import solutions.envision.entity.BatchSaveResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the status transitions and retry scheduling of webhook events.
+ */
+@QuarkusTest
+class WebhookEventServiceFacadeTest {
+
+    private static final String TRANSACTION_ID = "retry-tx-1";
+    private static final String OTHER_TRANSACTION_ID = "retry-tx-2";
+    private static final int MAX_RETRY_COUNT = 3;
+
+    @Inject
+    WebhookEventServiceFacade webhookEventServiceFacade;
+
+    @Inject
+    WebhookEventService webhookEventService;
+
+    @Inject
+    WebhookEventRepository webhookEventRepository;
+
+    @Inject
+    WebhookIdempotencyCache webhookIdempotencyCache;
+
+    @BeforeEach
+    void setUp() {
+        QuarkusTransaction.requiringNew().run(() -> webhookEventService.saveDomain(
+                newEvent(TRANSACTION_ID, WebhookEvent.ProcessingStatus.PROCESSING)));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        QuarkusTransaction.requiringNew().run(() ->
+                webhookEventRepository.delete("appypayTransactionId in ?1", List.of(TRANSACTION_ID, OTHER_TRANSACTION_ID)));
+        webhookIdempotencyCache.invalidateAll();
+    }
+
+    @Test
+    void testMarkAsFailed_SchedulesJitteredRetry() {
+        // Given
+        final Instant before = Instant.now();
+
+        // When
+        final boolean updated = webhookEventServiceFacade.markAsFailed(TRANSACTION_ID, 0, "Odoo unavailable");
+
+        // Then
+        assertThat(updated).isTrue();
+        final WebhookEvent event = webhookEventServiceFacade.findByAppyPayTransactionId(TRANSACTION_ID).orElseThrow();
+        assertThat(event.getProcessingStatus()).isEqualTo(WebhookEvent.ProcessingStatus.FAILED);
+        assertThat(event.getRetryCount()).isEqualTo(1);
+        assertThat(event.getNextAttemptAt())
+                .isAfterOrEqualTo(before.plus(Duration.ofSeconds(30)))
+                .isBeforeOrEqualTo(Instant.now().plus(Duration.ofSeconds(60)));
+    }
+
+    @Test
+    void testMarkAsFailed_MaxRetriesExceeded_MovesToDeadLetter() {
+        // When
+        for (int attempt = 0; attempt <= 3; attempt++) {
+            if (attempt > 0) {
+                assertThat(webhookEventServiceFacade.markAsProcessing(TRANSACTION_ID)).isTrue();
+            }
+            webhookEventServiceFacade.markAsFailed(TRANSACTION_ID, attempt, "Odoo unavailable");
+        }
+
+        // Then
+        final WebhookEvent event = webhookEventServiceFacade.findByAppyPayTransactionId(TRANSACTION_ID).orElseThrow();
+        assertThat(event.getProcessingStatus()).isEqualTo(WebhookEvent.ProcessingStatus.DEAD_LETTER);
+        assertThat(event.getRetryCount()).isEqualTo(4);
+        assertThat(event.getNextAttemptAt()).isNull();
+    }
+
+    @Test
+    void testMarkAsFailed_StaleRetryCount_IsNotRecorded() {
+        // Given
+        webhookEventServiceFacade.markAsFailed(TRANSACTION_ID, 0, "Odoo unavailable");
+        webhookEventServiceFacade.markAsProcessing(TRANSACTION_ID);
+
+        // When
+        final boolean updated = webhookEventServiceFacade.markAsFailed(TRANSACTION_ID, 0, "Odoo unavailable");
+
+        // Then
+        assertThat(updated).isFalse();
+        final WebhookEvent event = webhookEventServiceFacade.findByAppyPayTransactionId(TRANSACTION_ID).orElseThrow();
+        assertThat(event.getProcessingStatus()).isEqualTo(WebhookEvent.ProcessingStatus.PROCESSING);
+        assertThat(event.getRetryCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testMarkAsProcessing_OnlyOneClaimWins() {
+        // Given
+        webhookEventServiceFacade.markAsFailed(TRANSACTION_ID, 0, "Odoo unavailable");
+
+        // When
+        final boolean first = webhookEventServiceFacade.markAsProcessing(TRANSACTION_ID);
+        final boolean second = webhookEventServiceFacade.markAsProcessing(TRANSACTION_ID);
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+    }
+
+    @Test
+    void testMarkAsProcessing_DeadLetterOnlyClaimedForReplay() {
+        // Given
+        webhookEventServiceFacade.moveToDeadLetter(TRANSACTION_ID);
+
+        // When
+        final boolean claimed = webhookEventServiceFacade.markAsProcessing(TRANSACTION_ID);
+        final boolean replayed = webhookEventServiceFacade.markAsProcessingForReplay(TRANSACTION_ID);
+
+        // Then
+        assertThat(claimed).isFalse();
+        assertThat(replayed).isTrue();
+    }
+
+    @Test
+    void testClaimDueForRetry_AbandonedProcessing_IsRetried() {
+        // When
+        final List<WebhookEvent> due = QuarkusTransaction.requiringNew().call(() ->
+                webhookEventService.claimDueForRetry(Instant.now(), Instant.now().plusSeconds(1), MAX_RETRY_COUNT, 1000));
+
+        // Then
+        assertThat(due).extracting(WebhookEvent::getAppypayTransactionId).contains(TRANSACTION_ID);
+        final WebhookEvent event = webhookEventServiceFacade.findByAppyPayTransactionId(TRANSACTION_ID).orElseThrow();
+        assertThat(event.getProcessingStatus()).isEqualTo(WebhookEvent.ProcessingStatus.FAILED);
+        assertThat(event.getRetryCount()).isEqualTo(1);
+        assertThat(webhookEventServiceFacade.markAsProcessing(TRANSACTION_ID)).isTrue();
+    }
+
+    @Test
+    void testClaimDueForRetry_LeaseExpiresTooOften_MovesToDeadLetter() {
+        // When - every claim of the event is abandoned
+        for (int attempt = 0; attempt <= MAX_RETRY_COUNT; attempt++) {
+            if (attempt > 0) {
+                assertThat(webhookEventServiceFacade.markAsProcessing(TRANSACTION_ID)).isTrue();
+            }
+            QuarkusTransaction.requiringNew().run(() ->
+                    webhookEventService.claimDueForRetry(Instant.now(), Instant.now().plusSeconds(1), MAX_RETRY_COUNT, 1000));
+        }
+
+        // Then
+        final WebhookEvent event = webhookEventServiceFacade.findByAppyPayTransactionId(TRANSACTION_ID).orElseThrow();
+        assertThat(event.getProcessingStatus()).isEqualTo(WebhookEvent.ProcessingStatus.DEAD_LETTER);
+        assertThat(event.getRetryCount()).isEqualTo(MAX_RETRY_COUNT + 1);
+        assertThat(webhookEventServiceFacade.markAsProcessing(TRANSACTION_ID)).isFalse();
+    }
+
+    @Test
+    void testInsertAllIfAbsent_KnownEvent_IsSkipped() {
+        // When
+        final BatchSaveResult<WebhookEvent> result = QuarkusTransaction.requiringNew().call(() ->
+                webhookEventService.insertAllIfAbsent(List.of(
+                        newEvent(TRANSACTION_ID, WebhookEvent.ProcessingStatus.RECEIVED),
+                        newEvent(OTHER_TRANSACTION_ID, WebhookEvent.ProcessingStatus.RECEIVED))));
+
+        // Then
+        assertThat(result.getRows()).extracting(BatchSaveResult.Row::outcome)
+                .containsExactly(BatchSaveResult.Outcome.SKIPPED, BatchSaveResult.Outcome.PERSISTED);
+        assertThat(webhookEventServiceFacade.findByAppyPayTransactionId(TRANSACTION_ID).orElseThrow()
+                .getProcessingStatus()).isEqualTo(WebhookEvent.ProcessingStatus.PROCESSING);
+        assertThat(webhookEventServiceFacade.findByAppyPayTransactionId(OTHER_TRANSACTION_ID)).isPresent();
+    }
+
+    @Test
+    void testMarkAsProcessed_OnlyFromProcessing() {
+        // When
+        final boolean processed = webhookEventServiceFacade.markAsProcessed(TRANSACTION_ID);
+        final boolean again = webhookEventServiceFacade.markAsProcessed(TRANSACTION_ID);
+
+        // Then
+        assertThat(processed).isTrue();
+        assertThat(again).isFalse();
+        final WebhookEvent event = webhookEventServiceFacade.findByAppyPayTransactionId(TRANSACTION_ID).orElseThrow();
+        assertThat(event.getProcessingStatus()).isEqualTo(WebhookEvent.ProcessingStatus.PROCESSED);
+        assertThat(event.getProcessedAt()).isNotNull();
+        assertThat(event.getVersion()).isGreaterThan(0L);
+    }
+
+    private static WebhookEvent newEvent(String transactionId, WebhookEvent.ProcessingStatus status) {
+        return WebhookEvent.builder()
+                .id(UUID.randomUUID())
+                .appypayTransactionId(transactionId)
+                .merchantTransactionId("ORDER-RETRY-1")
+                .webhookType("Charge")
+                .processingStatus(status)
+                .payload(WebhookPayload.of("{}"))
+                .receivedAt(Instant.now())
+                .createdDate(Instant.now())
+                .updatedDate(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package ao.co.oportunidade.webhook.service;
+
+import ao.co.oportunidade.payment.service.PaymentProcessService;
+import ao.co.oportunidade.webhook.WebhookEvent;
+import ao.co.oportunidade.webhook.WebhookEventRepository;
+import ao.co.oportunidade.webhook.WebhookEventService;
+import ao.co.oportunidade.webhook.WebhookPayload;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Tests for the outcome the webhook processor reports for a claimed event.
+ */
+@QuarkusTest
+class WebhookProcessorTest {
+
+    private static final String TRANSACTION_ID = "processor-tx-1";
+
+    @Inject
+    WebhookProcessor webhookProcessor;
+
+    @Inject
+    WebhookEventServiceFacade webhookEventServiceFacade;
+
+    @Inject
+    WebhookEventService webhookEventService;
+
+    @Inject
+    WebhookEventRepository webhookEventRepository;
+
+    @Inject
+    WebhookIdempotencyCache webhookIdempotencyCache;
+
+    @InjectMock
+    PaymentProcessService paymentProcessService;
+
+    @BeforeEach
+    void setUp() {
+        QuarkusTransaction.requiringNew().run(() -> webhookEventService.saveDomain(WebhookEvent.builder()
+                .id(UUID.randomUUID())
+                .appypayTransactionId(TRANSACTION_ID)
+                .merchantTransactionId("ORDER-PROCESSOR-1")
+                .webhookType("Charge")
+                .processingStatus(WebhookEvent.ProcessingStatus.RECEIVED)
+                .payload(WebhookPayload.of("{\"id\":\"" + TRANSACTION_ID + "\"}"))
+                .receivedAt(Instant.now())
+                .createdDate(Instant.now())
+                .updatedDate(Instant.now())
+                .build()));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        QuarkusTransaction.requiringNew().run(() ->
+                webhookEventRepository.delete("appypayTransactionId in ?1", List.of(TRANSACTION_ID)));
+        webhookIdempotencyCache.invalidateAll();
+    }
+
+    @Test
+    void testProcessEvent_Success_IsProcessed() {
+        // When
+        final WebhookProcessor.Result result = webhookProcessor.processEvent(TRANSACTION_ID);
+
+        // Then
+        assertThat(result).isEqualTo(WebhookProcessor.Result.PROCESSED);
+        assertThat(webhookEventServiceFacade.findByAppyPayTransactionId(TRANSACTION_ID).orElseThrow()
+                .getProcessingStatus()).isEqualTo(WebhookEvent.ProcessingStatus.PROCESSED);
+    }
+
+    @Test
+    void testProcessEvent_ClaimTakenOverWhileProcessing_IsClaimedElsewhere() {
+        // Given - the lease expires and the sweep fails the event while the payment is processed
+        doAnswer(invocation -> webhookEventServiceFacade.markAsFailed(TRANSACTION_ID, 0, "Processing lease expired"))
+                .when(paymentProcessService).processWebhook(any());
+
+        // When
+        final WebhookProcessor.Result result = webhookProcessor.processEvent(TRANSACTION_ID);
+
+        // Then
+        assertThat(result).isEqualTo(WebhookProcessor.Result.CLAIMED_ELSEWHERE);
+        assertThat(webhookEventServiceFacade.findByAppyPayTransactionId(TRANSACTION_ID).orElseThrow()
+                .getProcessingStatus()).isEqualTo(WebhookEvent.ProcessingStatus.FAILED);
+    }
+}
@@ -0,0 +1,112 @@
+package ao.co.oportunidade.webhook.service;
+
+import ao.co.oportunidade.webhook.WebhookEvent;
+import ao.co.oportunidade.webhook.WebhookEventRepository;
+import ao.co.oportunidade.webhook.WebhookEventService;
+import ao.co.oportunidade.webhook.WebhookPayload;
+import ao.co.oportunidade.webhook.entity.WebhookEventArchiveEntity;
+import ao.co.oportunidade.webhook.entity.WebhookEventArchiveRepository;
+import ao.co.oportunidade.webhook.entity.WebhookPayloadCodecs;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for archiving processed webhook events and purging the expired archive.
+ */
+@QuarkusTest
+class WebhookRetentionServiceTest {
+
+    private static final String OLD_PROCESSED = "retention-old-processed";
+    private static final String NEW_PROCESSED = "retention-new-processed";
+    private static final String OLD_FAILED = "retention-old-failed";
+
+    @Inject
+    WebhookRetentionService retentionService;
+
+    @Inject
+    WebhookEventService webhookEventService;
+
+    @Inject
+    WebhookEventRepository webhookEventRepository;
+
+    @Inject
+    WebhookEventArchiveRepository archiveRepository;
+
+    @Inject
+    WebhookPayloadCodecs payloadCodecs;
+
+    private final Instant now = Instant.now();
+
+    @BeforeEach
+    void setUp() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            webhookEventService.saveDomain(event(OLD_PROCESSED, WebhookEvent.ProcessingStatus.PROCESSED, Duration.ofDays(40)));
+            webhookEventService.saveDomain(event(NEW_PROCESSED, WebhookEvent.ProcessingStatus.PROCESSED, Duration.ofDays(1)));
+            webhookEventService.saveDomain(event(OLD_FAILED, WebhookEvent.ProcessingStatus.FAILED, Duration.ofDays(40)));
+        });
+    }
+
+    @AfterEach
+    void cleanUp() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            webhookEventRepository.delete("appypayTransactionId like ?1", "retention-%");
+            archiveRepository.delete("appypayTransactionId like ?1", "retention-%");
+        });
+    }
+
+    @Test
+    void testArchiveBatch_MovesOnlyOldProcessedEvents() {
+        // When
+        final int archived = retentionService.archiveBatch(now.minus(Duration.ofDays(30)), 10);
+
+        // Then
+        assertThat(archived).isEqualTo(1);
+        assertThat(webhookEventRepository.findByAppyPayTransactionId(OLD_PROCESSED)).isEmpty();
+        assertThat(webhookEventRepository.findByAppyPayTransactionId(NEW_PROCESSED)).isPresent();
+        assertThat(webhookEventRepository.findByAppyPayTransactionId(OLD_FAILED)).isPresent();
+        assertThat(archiveRepository.count("appypayTransactionId", OLD_PROCESSED)).isEqualTo(1);
+        final WebhookEventArchiveEntity archivedEvent =
+                archiveRepository.find("appypayTransactionId", OLD_PROCESSED).firstResult();
+        assertThat(WebhookPayload.stored(payloadCodecs.forTag(archivedEvent.getPayloadCodec()),
+                archivedEvent.getPayload()).json())
+                .isEqualTo("{\"id\":\"" + OLD_PROCESSED + "\"}");
+    }
+
+    @Test
+    void testPurgeArchive_DeletesExpiredEvents() {
+        // Given
+        retentionService.archiveBatch(now.minus(Duration.ofDays(30)), 10);
+
+        // When
+        final int kept = retentionService.purgeArchive(now.minus(Duration.ofDays(50)));
+        final int purged = retentionService.purgeArchive(now.minus(Duration.ofDays(35)));
+
+        // Then
+        assertThat(kept).isZero();
+        assertThat(purged).isEqualTo(1);
+        assertThat(archiveRepository.count("appypayTransactionId", OLD_PROCESSED)).isZero();
+    }
+
+    private WebhookEvent event(String appypayTransactionId, WebhookEvent.ProcessingStatus status, Duration age) {
+        return WebhookEvent.builder()
+                .id(UUID.randomUUID())
+                .appypayTransactionId(appypayTransactionId)
+                .webhookType("Charge")
+                .processingStatus(status)
+                .payload(WebhookPayload.of("{\"id\":\"" + appypayTransactionId + "\"}"))
+                .receivedAt(now.minus(age))
+                .createdDate(now.minus(age))
+                .updatedDate(now.minus(age))
+                .build();
+    }
+}
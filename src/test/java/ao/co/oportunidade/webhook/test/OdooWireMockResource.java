@@ -0,0 +1,46 @@
+package ao.co.oportunidade.webhook.test;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * Stubs the Odoo payment webhook with WireMock, answering every payment
+ * successfully after {@code load.odoo-latency-ms} milliseconds (default 200).
+ */
+public class OdooWireMockResource implements QuarkusTestResourceLifecycleManager {
+
+    private WireMockServer wireMockServer;
+
+    @Override
+    public Map<String, String> start() {
+        wireMockServer = new WireMockServer(options().dynamicPort().containerThreads(200));
+        wireMockServer.start();
+        wireMockServer.stubFor(post(urlEqualTo("/api/webhook/payment"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withFixedDelay(Integer.getInteger("load.odoo-latency-ms", 200))
+                        .withBody("""
+                                {
+                                    "success": true,
+                                    "payment_id": 1,
+                                    "message": "Payment processed successfully"
+                                }
+                                """)));
+        return Map.of("quarkus.rest-client.odoo-api.url", wireMockServer.baseUrl());
+    }
+
+    @Override
+    public void stop() {
+        if (wireMockServer != null) {
+            wireMockServer.stop();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ao.co.oportunidade.webhook.test;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+import java.util.Map;
+
+/**
+ * Runs a test against PostgreSQL instead of H2, for the statements H2 cannot run as written
+ * and for the reactive PostgreSQL client.
+ * Uses {@code localhost:5432/odoo_payments_test} unless {@code -Dtest.db=host:port/database} is set,
+ * with {@code -Dtest.db-username} and {@code -Dtest.db-password}. Tests using it are tagged
+ * {@code postgres} and run with {@code -Ppostgres-test}; the schema is created by Hibernate.
+ */
+public class PostgresTestProfile implements QuarkusTestProfile {
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        final String database = System.getProperty("test.db", "localhost:5432/odoo_payments_test");
+        return Map.of(
+                "quarkus.datasource.db-kind", "postgresql",
+                "quarkus.datasource.username", System.getProperty("test.db-username", "postgres"),
+                "quarkus.datasource.password", System.getProperty("test.db-password", "postgres"),
+                "quarkus.datasource.jdbc.url", "jdbc:postgresql://" + database,
+                "quarkus.datasource.reactive", "true",
+                "quarkus.datasource.reactive.url", "postgresql://" + database,
+                "quarkus.scheduler.enabled", "false"
+        );
+    }
+}
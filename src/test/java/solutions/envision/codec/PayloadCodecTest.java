@@ -0,0 +1,62 @@
+package solutions.envision.codec;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdOutputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for round trips and tags of the payload codecs.
+ */
+class PayloadCodecTest {
+
+    private static final byte[] PAYLOAD = ("{\"id\":\"tx-1\",\"merchantTransactionId\":\"ORDER-1\","
+            + "\"type\":\"Charge\",\"status\":\"Success\",\"amount\":1000.00,\"currency\":\"AOA\"}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void testCodecs_RoundTrip() {
+        for (PayloadCodec codec : List.of(new IdentityPayloadCodec(), new GzipPayloadCodec(), new ZstdPayloadCodec(3))) {
+            assertThat(codec.decode(codec.encode(PAYLOAD))).isEqualTo(PAYLOAD);
+            assertThat(codec.decode(codec.encode(new byte[0]))).isEmpty();
+        }
+    }
+
+    @Test
+    void testZstd_DecodesFrameWithoutContentSize() throws IOException {
+        final ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        try (ZstdOutputStream zstd = new ZstdOutputStream(streamed)) {
+            zstd.write(PAYLOAD);
+        }
+
+        assertThat(Zstd.getFrameContentSize(streamed.toByteArray())).isNegative();
+        assertThat(new ZstdPayloadCodec(3).decode(streamed.toByteArray())).isEqualTo(PAYLOAD);
+    }
+
+    @Test
+    void testZstdDictionary_RoundTripsAndTagsDictionary() {
+        final List<byte[]> samples = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            samples.add(("{\"id\":\"tx-" + i + "\",\"merchantTransactionId\":\"ORDER-" + i * 31
+                    + "\",\"type\":\"Charge\",\"status\":\"" + (i % 3 == 0 ? "Failed" : "Success")
+                    + "\",\"amount\":" + (1000 + i) + ".00,\"currency\":\"AOA\"}").getBytes(StandardCharsets.UTF_8));
+        }
+        final byte[] dictionary = ZstdPayloadCodec.train(samples, 4096);
+        final ZstdPayloadCodec codec = new ZstdPayloadCodec(3, dictionary);
+
+        final byte[] encoded = codec.encode(PAYLOAD);
+
+        assertThat(codec.decode(encoded)).isEqualTo(PAYLOAD);
+        assertThat(encoded.length).isLessThan(new ZstdPayloadCodec(3).encode(PAYLOAD).length);
+        assertThat(codec.tag())
+                .startsWith(ZstdPayloadCodec.DICTIONARY_TAG_PREFIX)
+                .isEqualTo(ZstdPayloadCodec.dictionaryTag(dictionary));
+    }
+}
@@ -1,17 +1,28 @@
 package solutions.envision.odoo.service;
 
+import ao.co.oportunidade.payment.model.PaymentTransaction;
+import solutions.envision.odoo.dto.OdooBulkPaymentResponse;
 import solutions.envision.odoo.dto.OdooPaymentRequest;
 import solutions.envision.odoo.dto.OdooWebhookResponse;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.InjectMock;
+import io.smallrye.faulttolerance.api.CircuitBreakerMaintenance;
+import io.smallrye.faulttolerance.api.CircuitBreakerState;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,10 +36,21 @@ class OdooApiClientTest {
     @RestClient
     OdooApiClient odooApiClient;
 
+    @Inject
+    OdooPaymentService odooPaymentService;
+
+    @Inject
+    CircuitBreakerMaintenance circuitBreakers;
+
     private String validWebhookKey;
     private OdooPaymentRequest validPaymentRequest;
     private OdooWebhookResponse successResponse;
 
+    @AfterEach
+    void resetCircuitBreaker() {
+        circuitBreakers.resetAll();
+    }
+
     @BeforeEach
     void setUp() {
         validWebhookKey = "test-webhook-key-12345";
@@ -263,4 +285,79 @@ class OdooApiClientTest {
         assertEquals(429, exception.getResponse().getStatus());
         verify(odooApiClient, times(1)).sendPayment(validWebhookKey,validPaymentRequest.getPayment());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should send several payments in one request and keep Odoo's result per payment")
+    void testSendPaymentsToOdoo_PartialSuccess() {
+        // Arrange
+        final OdooWebhookResponse accepted = new OdooWebhookResponse();
+        accepted.setSuccess(true);
+        accepted.setPaymentId(42);
+        final OdooWebhookResponse rejected = new OdooWebhookResponse();
+        rejected.setSuccess(false);
+        rejected.setError("DUPLICATE_REFERENCE");
+        final OdooBulkPaymentResponse bulkResponse = new OdooBulkPaymentResponse();
+        bulkResponse.setSuccess(true);
+        bulkResponse.setResults(List.of(accepted, rejected));
+
+        when(odooApiClient.sendPayments(any(), anyList())).thenReturn(bulkResponse);
+        final List<PaymentTransaction> transactions = List.of(createTransaction("REF-1"), createTransaction("REF-2"));
+
+        // Act
+        final List<OdooWebhookResponse> results = odooPaymentService.sendPaymentsToOdoo(transactions);
+
+        // Assert
+        assertThat(results).containsExactly(accepted, rejected);
+        assertThat(transactions.get(0).getPaymentId()).isEqualTo(42);
+        assertThat(transactions.get(1).getPaymentId()).isNull();
+        verify(odooApiClient, times(1)).sendPayments(any(), argThat(payments -> payments.size() == 2));
+        verify(odooApiClient, never()).sendPayment(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should fail the whole batch when Odoo does not answer every payment")
+    void testSendPaymentsToOdoo_MissingResults() {
+        // Arrange
+        final OdooBulkPaymentResponse bulkResponse = new OdooBulkPaymentResponse();
+        bulkResponse.setSuccess(false);
+        bulkResponse.setError("Batch too large");
+
+        when(odooApiClient.sendPayments(any(), anyList())).thenReturn(bulkResponse);
+        final List<PaymentTransaction> transactions = List.of(createTransaction("REF-1"), createTransaction("REF-2"));
+
+        // Act & Assert
+        assertThrows(OdooSyncException.class, () -> odooPaymentService.sendPaymentsToOdoo(transactions));
+        assertThat(transactions).allSatisfy(transaction -> assertThat(transaction.getPaymentId()).isNull());
+    }
+
+    @Test
+    @DisplayName("Should open the circuit after repeated failures and then fail fast without calling Odoo")
+    void testSendPaymentToOdoo_CircuitOpensAndFailsFast() {
+        // Arrange
+        when(odooApiClient.sendPayment(any(), any()))
+                .thenThrow(new jakarta.ws.rs.ProcessingException("Connection refused"));
+        final PaymentTransaction transaction = createTransaction("REF-1");
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            assertThrows(OdooSyncException.class, () -> odooPaymentService.sendPaymentToOdoo(transaction));
+        }
+
+        // Assert
+        assertEquals(CircuitBreakerState.OPEN, circuitBreakers.currentState(OdooApiGateway.CIRCUIT_BREAKER));
+        assertThrows(CircuitBreakerOpenException.class, () -> odooPaymentService.sendPaymentToOdoo(transaction));
+        assertThrows(CircuitBreakerOpenException.class,
+                () -> odooPaymentService.sendPaymentsToOdoo(List.of(transaction)));
+        verify(odooApiClient, times(20)).sendPayment(any(), any());
+        verify(odooApiClient, never()).sendPayments(any(), any());
+    }
+
+    private static PaymentTransaction createTransaction(String referenceNumber) {
+        final PaymentTransaction transaction = new PaymentTransaction();
+        transaction.setId(UUID.randomUUID());
+        transaction.setAmount(new BigDecimal("1500.00"));
+        transaction.setReferenceNumber(referenceNumber);
+        transaction.setTransactionDate(Instant.now());
+        return transaction;
+    }
+}
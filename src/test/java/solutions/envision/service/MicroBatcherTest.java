@@ -0,0 +1,56 @@
+package solutions.envision.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for size- and linger-based flushing of the micro-batcher.
+ */
+class MicroBatcherTest {
+
+    private final List<List<Integer>> flushed = new CopyOnWriteArrayList<>();
+
+    @Test
+    void testAdd_FlushesFullBatches() {
+        final MicroBatcher<Integer> batcher = new MicroBatcher<>(3, Duration.ofHours(1), flushed::add);
+
+        for (int i = 0; i < 7; i++) {
+            batcher.add(i);
+        }
+
+        assertThat(flushed).containsExactly(List.of(0, 1, 2), List.of(3, 4, 5));
+    }
+
+    @Test
+    void testFlushIfLingering_FlushesOnlyAfterLinger() throws InterruptedException {
+        final MicroBatcher<Integer> batcher = new MicroBatcher<>(10, Duration.ofMillis(50), flushed::add);
+        batcher.add(1);
+
+        batcher.flushIfLingering();
+        assertThat(flushed).isEmpty();
+
+        Thread.sleep(60);
+        batcher.flushIfLingering();
+        assertThat(flushed).containsExactly(List.of(1));
+
+        batcher.flushIfLingering();
+        assertThat(flushed).hasSize(1);
+    }
+
+    @Test
+    void testFlush_FlushesPartialBatch() {
+        final MicroBatcher<Integer> batcher = new MicroBatcher<>(10, Duration.ofHours(1), flushed::add);
+        batcher.flush();
+        batcher.add(1);
+        batcher.add(2);
+
+        batcher.flush();
+
+        assertThat(flushed).containsExactly(List.of(1, 2));
+    }
+}
@@ -0,0 +1,79 @@
+package solutions.envision.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ordering and rejection handling of the serial executor.
+ */
+class SerialExecutorTest {
+
+    private final Queue<Runnable> submitted = new ArrayDeque<>();
+    private final List<Runnable> rejected = new CopyOnWriteArrayList<>();
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+    private boolean rejecting;
+
+    private final Executor executor = task -> {
+        if (rejecting) {
+            throw new RejectedExecutionException("shut down");
+        }
+        submitted.add(task);
+    };
+
+    @Test
+    void testExecute_RunsTasksOneAtATimeInOrder() {
+        final SerialExecutor serial = new SerialExecutor(executor, rejected::add);
+        serial.execute(() -> executed.add("a"));
+        serial.execute(() -> executed.add("b"));
+
+        assertThat(submitted).hasSize(1);
+        submitted.poll().run();
+        submitted.poll().run();
+
+        assertThat(executed).containsExactly("a", "b");
+        assertThat(submitted).isEmpty();
+    }
+
+    @Test
+    void testExecute_RejectionWhileDraining_HandsOverQueuedTasks() {
+        final SerialExecutor serial = new SerialExecutor(executor, rejected::add);
+        final Runnable first = () -> executed.add("a");
+        final Runnable second = () -> executed.add("b");
+        final Runnable third = () -> executed.add("c");
+        serial.execute(first);
+        serial.execute(second);
+        serial.execute(third);
+
+        rejecting = true;
+        submitted.poll().run();
+
+        assertThat(executed).containsExactly("a");
+        assertThat(rejected).containsExactly(second, third);
+        assertThat(serial.getQueueDepth()).isZero();
+
+        rejecting = false;
+        serial.execute(() -> executed.add("d"));
+        submitted.poll().run();
+        assertThat(executed).containsExactly("a", "d");
+    }
+
+    @Test
+    void testExecute_RejectedSubmission_IsHandedOver() {
+        final SerialExecutor serial = new SerialExecutor(executor, rejected::add);
+        final Runnable task = () -> executed.add("a");
+        rejecting = true;
+
+        serial.execute(task);
+
+        assertThat(rejected).containsExactly(task);
+        assertThat(executed).isEmpty();
+    }
+}
@@ -0,0 +1,60 @@
+package solutions.envision.service;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.RollbackException;
+import jakarta.transaction.Status;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the outcome transaction callbacks are run with.
+ */
+@QuarkusTest
+class TransactionCallbacksTest {
+
+    @Inject
+    TransactionCallbacks transactionCallbacks;
+
+    private final List<String> committed = new CopyOnWriteArrayList<>();
+    private final List<Integer> completed = new CopyOnWriteArrayList<>();
+
+    @Test
+    void testAfterCommit_NoTransaction_RunsImmediately() {
+        transactionCallbacks.afterCommit(() -> committed.add("write"));
+        transactionCallbacks.afterCompletion(completed::add);
+
+        assertThat(committed).containsExactly("write");
+        assertThat(completed).containsExactly(Status.STATUS_COMMITTED);
+    }
+
+    @Test
+    void testAfterCommit_Committed_RunsOnlyAfterCommit() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            transactionCallbacks.afterCommit(() -> committed.add("write"));
+            transactionCallbacks.afterCompletion(completed::add);
+            assertThat(committed).isEmpty();
+        });
+
+        assertThat(committed).containsExactly("write");
+        assertThat(completed).containsExactly(Status.STATUS_COMMITTED);
+    }
+
+    @Test
+    void testAfterCommit_MarkedRollbackOnly_DoesNotRun() {
+        assertThatThrownBy(() -> QuarkusTransaction.requiringNew().run(() -> {
+            QuarkusTransaction.setRollbackOnly();
+            transactionCallbacks.afterCommit(() -> committed.add("write"));
+            transactionCallbacks.afterCompletion(completed::add);
+        })).hasCauseInstanceOf(RollbackException.class);
+
+        assertThat(committed).isEmpty();
+        assertThat(completed).containsExactly(Status.STATUS_ROLLEDBACK);
+    }
+}